@@ -0,0 +1,133 @@
+package com.scott.swipelayout
+
+import android.annotation.TargetApi
+import android.os.Build
+import android.os.Bundle
+import android.support.v7.app.AppCompatActivity
+import android.support.v7.widget.LinearLayoutManager
+import android.support.v7.widget.RecyclerView
+import android.view.Choreographer
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import android.widget.CompoundButton
+import android.widget.TextView
+import com.scott.swipe.SwipeLayout
+
+/**
+ * Compare the frame time of swiping heavy rows with and without hardware layers.
+ */
+class LayerActivity : AppCompatActivity() {
+
+    private lateinit var frameStatsView: TextView
+    private var frameStats: FrameStats? = null
+
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        setContentView(R.layout.activity_layer)
+        frameStatsView = findViewById(R.id.layer_frame_stats)
+        val adapter = HeavyAdapter()
+        val recyclerView = findViewById<RecyclerView>(R.id.layer_list)
+        recyclerView.layoutManager = LinearLayoutManager(this)
+        recyclerView.adapter = adapter
+        findViewById<CompoundButton>(R.id.layer_switch).setOnCheckedChangeListener({ _, isChecked ->
+            adapter.hardwareLayerEnabled = isChecked
+            frameStats?.reset()
+        })
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            frameStats = FrameStats(frameStatsView)
+        } else {
+            frameStatsView.setText(R.string.layer_frame_stats_unsupported)
+        }
+    }
+
+    override fun onResume() {
+        super.onResume()
+        frameStats?.start()
+    }
+
+    override fun onPause() {
+        super.onPause()
+        frameStats?.stop()
+    }
+
+    /**
+     * Show the average and max frame time of the last [WINDOW] frames.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class FrameStats(private val output: TextView) : Choreographer.FrameCallback {
+        private var lastFrameTimeNanos = 0L
+        private var frameCount = 0
+        private var totalNanos = 0L
+        private var maxNanos = 0L
+        private var jankCount = 0
+
+        fun start() {
+            reset()
+            Choreographer.getInstance().postFrameCallback(this)
+        }
+
+        fun stop() {
+            Choreographer.getInstance().removeFrameCallback(this)
+        }
+
+        fun reset() {
+            lastFrameTimeNanos = 0L
+            frameCount = 0
+            totalNanos = 0L
+            maxNanos = 0L
+            jankCount = 0
+        }
+
+        override fun doFrame(frameTimeNanos: Long) {
+            if (lastFrameTimeNanos != 0L) {
+                val interval = frameTimeNanos - lastFrameTimeNanos
+                frameCount++
+                totalNanos += interval
+                maxNanos = Math.max(maxNanos, interval)
+                if (interval > JANK_NANOS) {
+                    jankCount++
+                }
+                if (frameCount == WINDOW) {
+                    output.text = output.context.getString(R.string.layer_frame_stats,
+                            totalNanos / frameCount / 1e6f, maxNanos / 1e6f, jankCount)
+                    reset()
+                }
+            }
+            lastFrameTimeNanos = frameTimeNanos
+            Choreographer.getInstance().postFrameCallback(this)
+        }
+
+        companion object {
+            const val WINDOW = 120
+            const val JANK_NANOS = 17_000_000L
+        }
+    }
+
+    private class HeavyAdapter : RecyclerView.Adapter<HeavyAdapter.VH>() {
+
+        var hardwareLayerEnabled = false
+            set(value) {
+                field = value
+                notifyDataSetChanged()
+            }
+
+        override fun getItemCount(): Int {
+            return 200
+        }
+
+        override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): VH {
+            return VH(LayoutInflater.from(parent.context).inflate(R.layout.item_heavy, parent, false))
+        }
+
+        override fun onBindViewHolder(holder: VH, position: Int) {
+            holder.swipeLayout.isHardwareLayerEnabled = hardwareLayerEnabled
+            holder.title.text = holder.itemView.context.getString(R.string.layer_row_title, position)
+        }
+
+        class VH(itemView: View) : RecyclerView.ViewHolder(itemView) {
+            val swipeLayout = itemView as SwipeLayout
+            val title: TextView = itemView.findViewById(R.id.heavy_title)
+        }
+    }
+}
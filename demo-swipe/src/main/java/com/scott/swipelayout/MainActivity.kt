@@ -1,5 +1,6 @@
 package com.scott.swipelayout
 
+import android.content.Intent
 import android.os.Bundle
 import android.support.v7.app.AppCompatActivity
 import android.view.View
@@ -29,5 +30,8 @@ class MainActivity : AppCompatActivity() {
         findViewById<View>(R.id.btn4).setOnClickListener({
             swipeLayout.closeEndView(true)
         })
+        findViewById<View>(R.id.btn_layer).setOnClickListener({
+            startActivity(Intent(this, LayerActivity::class.java))
+        })
     }
 }
@@ -4,6 +4,9 @@ import android.support.v7.widget.RecyclerView
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
+import com.scott.swipe.SwipeLayout
+import com.scott.swipe.SwipeSingleOpenPolicy
+import com.scott.swipe.SwipeStateCoordinator
 
 /**
  * Author: scott
@@ -12,16 +15,28 @@ import android.view.ViewGroup
  * Description:
  */
 class SAdapter() : RecyclerView.Adapter<SAdapter.VH>() {
+    private val stateCoordinator = SwipeStateCoordinator()
+    private val singleOpenPolicy = SwipeSingleOpenPolicy()
+
+    init {
+        setHasStableIds(true)
+    }
+
+    override fun getItemId(position: Int): Long {
+        return position.toLong()
+    }
+
     override fun getItemCount(): Int {
         return 10
     }
 
     override fun onBindViewHolder(holder: VH?, position: Int) {
-
+        stateCoordinator.bind(holder!!.itemView as SwipeLayout, getItemId(position))
     }
 
     override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): VH {
         val view = LayoutInflater.from(parent.context).inflate(R.layout.item, parent, false)
+        singleOpenPolicy.attach(view as SwipeLayout)
         return VH(view)
     }
 
@@ -0,0 +1,47 @@
+package com.scott.swipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the clamping run for every drag move, replaying a swipe to the end menu and back past the start menu.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwipeBoundsBenchmark {
+
+    private static final int DRAG_EVENT_COUNT = 500;
+
+    private SwipeBounds mSwipeBounds;
+    private int[] mDeltas;
+
+    @Setup
+    public void setUp() {
+        mSwipeBounds = new SwipeBounds();
+        mSwipeBounds.set(240, 180);
+        mDeltas = new int[DRAG_EVENT_COUNT];
+        for (int i = 0; i < DRAG_EVENT_COUNT; i++) {
+            mDeltas[i] = i < DRAG_EVENT_COUNT / 2 ? -3 : 5;
+        }
+    }
+
+    /**
+     * @return the final offset, so the replay is not eliminated.
+     */
+    @Benchmark
+    public int clampDrag() {
+        int offset = 0;
+        for (int delta : mDeltas) {
+            offset += mSwipeBounds.clampDelta(offset, delta);
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,60 @@
+package com.scott.swipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the math run once per release or per frame: the snap decision and the range dispatched to listeners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwipeSnapBenchmark {
+
+    private static final int START_LENGTH = 240;
+    private static final int END_LENGTH = 180;
+
+    /**
+     * Offsets across both menus, so the start and the end branches are both taken.
+     */
+    private int[] mOffsets;
+
+    @Setup
+    public void setUp() {
+        mOffsets = new int[64];
+        for (int i = 0; i < mOffsets.length; i++) {
+            mOffsets[i] = -END_LENGTH + i * (START_LENGTH + END_LENGTH) / (mOffsets.length - 1);
+        }
+    }
+
+    @Benchmark
+    public void scrollDistance(Blackhole blackhole) {
+        for (int offset : mOffsets) {
+            final int length = offset > 0 ? START_LENGTH : END_LENGTH;
+            blackhole.consume(SwipeSnap.getScrollDistance(offset, length, SwipeSnap.STATUS_FRACTION, 0.3f));
+        }
+    }
+
+    @Benchmark
+    public void flingDistance(Blackhole blackhole) {
+        for (int offset : mOffsets) {
+            final int length = offset > 0 ? START_LENGTH : END_LENGTH;
+            blackhole.consume(SwipeSnap.getFlingDistance(offset, length, -2400f));
+        }
+    }
+
+    @Benchmark
+    public void computeRange(Blackhole blackhole) {
+        for (int offset : mOffsets) {
+            blackhole.consume(SwipeSnap.computeRange(offset, START_LENGTH, END_LENGTH));
+        }
+    }
+}
@@ -119,6 +119,35 @@ class ViewOffsetHelperTest {
         assertEquals(-200, viewOffsetHelper.topAndBottomOffset)
     }
 
+    @Test
+    @Throws(Throwable::class)
+    fun testOffsetByTranslation() {
+        viewOffsetHelper.offsetMode = SwipeOffsetMode.TRANSLATION
+        viewOffsetHelper.offsetLeftAndRight(10)
+        viewOffsetHelper.offsetTopAndBottom(-20)
+        assertEquals(10, viewOffsetHelper.leftAndRightOffset)
+        assertEquals(-20, viewOffsetHelper.topAndBottomOffset)
+        assertEquals(0, viewOffsetHelper.view.left)
+        assertEquals(10f, viewOffsetHelper.view.translationX)
+
+        viewOffsetHelper.offsetByLeft(100)
+        assertEquals(100, viewOffsetHelper.leftAndRightOffset)
+        assertEquals(100, viewOffsetHelper.currentLeft)
+    }
+
+    @Test
+    @Throws(Throwable::class)
+    fun testChangeOffsetMode() {
+        viewOffsetHelper.offsetLeftAndRight(30)
+        viewOffsetHelper.offsetMode = SwipeOffsetMode.TRANSLATION
+        assertEquals(30, viewOffsetHelper.leftAndRightOffset)
+        assertEquals(0, viewOffsetHelper.view.left)
+
+        viewOffsetHelper.offsetMode = SwipeOffsetMode.LAYOUT
+        assertEquals(30, viewOffsetHelper.leftAndRightOffset)
+        assertEquals(0f, viewOffsetHelper.view.translationX)
+    }
+
     @Test
     @Throws(Throwable::class)
     fun testFinish() {
@@ -1,5 +0,0 @@
-package com.scott.swipe;
-
-public class Config {
-    public static final boolean DEBUG = true;
-}
@@ -3,6 +3,8 @@ package com.scott.swipe;
 import android.content.Context;
 import android.util.AttributeSet;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Interaction handler plugin for {@link SwipeLayout}.
  * <p>A handler implements the interface handle the EndEvent of {@link SwipeLayout}
@@ -11,6 +13,61 @@ import android.util.AttributeSet;
  */
 public abstract class EndSwipeHandler {
 
+    /**
+     * Creates the handler named by {@code app:swipeHandler} with a direct call, instead of reflection.
+     *
+     * @see #registerFactory(String, Factory)
+     */
+    public interface Factory {
+
+        /**
+         * @param context The Context the EndSwipeHandler is running in
+         * @param attrs   The attributes of the XML tag that is inflating the EndSwipeHandler
+         * @return a new handler
+         */
+        EndSwipeHandler create(Context context, AttributeSet attrs);
+    }
+
+    private static final ConcurrentHashMap<String, Factory> sFactories = new ConcurrentHashMap<>();
+
+    static {
+        final Factory snapFactory = new Factory() {
+            @Override
+            public EndSwipeHandler create(Context context, AttributeSet attrs) {
+                return new SwipeSnapHandler(context, attrs);
+            }
+        };
+        sFactories.put("SwipeSnapHandler", snapFactory);
+        sFactories.put(SwipeSnapHandler.class.getName(), snapFactory);
+
+        final Factory springFactory = new Factory() {
+            @Override
+            public EndSwipeHandler create(Context context, AttributeSet attrs) {
+                return new SwipeSpringHandler(context, attrs);
+            }
+        };
+        sFactories.put("SwipeSpringHandler", springFactory);
+        sFactories.put(SwipeSpringHandler.class.getName(), springFactory);
+    }
+
+    /**
+     * Register the factory for the name used by {@code app:swipeHandler}, so that the handler is created
+     * without reflection and the class can be shrunk or obfuscated. Register before the layouts are inflated.
+     *
+     * @param name    the name exactly as written in {@code app:swipeHandler}, short or fully qualified
+     * @param factory the factory creates the handler
+     */
+    public static void registerFactory(String name, Factory factory) {
+        sFactories.put(name, factory);
+    }
+
+    /**
+     * @return The factory registered for the name, or null if the name is unknown.
+     */
+    static Factory getFactory(String name) {
+        return sFactories.get(name);
+    }
+
     /**
      * Default constructor for instantiating EndSwipeHandler.
      */
@@ -38,18 +95,55 @@ public abstract class EndSwipeHandler {
     public abstract void onEndSwipe(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper);
 
     /**
-     * @return {@code true} the Handler is running, otherwise the handler is not running
+     * The method is invoked to that {@link SwipeLayout} received touch events and swiped {@link ItemType#SWIPE_VIEW},
+     * with the velocity of the finger when it lifted. By default, it invokes {@link #onEndSwipe(SwipeLayout, ViewOffsetHelper)}.
+     *
+     * @param swipeLayout      who invoke the method
+     * @param viewOffsetHelper The {@link ViewOffsetHelper} contains {@link ItemType#SWIPE_VIEW}
+     * @param velocity         The release velocity along {@link SwipeLayout#getSwipeOrientation()} in pixels per second,
+     *                         0 if the gesture was canceled.
+     */
+    public void onEndSwipe(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper, float velocity) {
+        onEndSwipe(swipeLayout, viewOffsetHelper);
+    }
+
+    /**
+     * A shareable handler keeps no per-gesture state, so one instance serves every {@link SwipeLayout}
+     * inflated with an equal configuration. Such a handler must implement {@link #equals(Object)} and
+     * {@link #hashCode()} over its configuration, and find the state from the arguments of its methods.
+     *
+     * @return {@code true} if the handler can be shared by layouts, {@code false} by default.
      */
-    public abstract boolean isFinish();
+    public boolean isShareable() {
+        return false;
+    }
 
     /**
-     * Finish the end swipe.
+     * A handler that animates the swipe view by itself overrides it to report its own animation too.
+     *
+     * @param viewOffsetHelper The {@link ViewOffsetHelper} of the layout asking
+     * @return {@code true} the Handler is not running for the layout. By default, the settle of the helper is finished.
      */
-    public abstract void finish();
+    public boolean isFinish(ViewOffsetHelper viewOffsetHelper) {
+        return viewOffsetHelper == null || viewOffsetHelper.isFinish();
+    }
+
+    /**
+     * Finish the end swipe of the layout, the swipe view stays where it is. By default, it finishes the settle
+     * of the helper. A handler that animates the swipe view by itself overrides it to stop its own animation too.
+     *
+     * @param viewOffsetHelper The {@link ViewOffsetHelper} of the layout asking
+     */
+    public void finish(ViewOffsetHelper viewOffsetHelper) {
+        if (viewOffsetHelper != null) {
+            viewOffsetHelper.finish();
+        }
+    }
 
 
     /**
-     * Release holding resources.
+     * Release holding resources, invoked when the layout is detached. It is never invoked on a shareable handler,
+     * which the other layouts still use.
      */
     public abstract void release();
 }
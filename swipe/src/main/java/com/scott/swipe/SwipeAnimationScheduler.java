@@ -0,0 +1,287 @@
+package com.scott.swipe;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.RequiresApi;
+import android.support.annotation.VisibleForTesting;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Process-wide scheduler that drives every running settle of {@link SwipeLayout} from a single frame callback,
+ * so that mass open or close across a list costs one callback per frame and all settles share one frame time.
+ * The frame callback is only registered while there are settles running.
+ * <p>The scheduler must be used on the main thread.
+ */
+final class SwipeAnimationScheduler {
+
+    /**
+     * The callback that runs on every frame until it returns {@code false} or is removed.
+     */
+    interface AnimationCallback {
+
+        /**
+         * @param frameTimeNanos the time of current frame, in the time base of {@link System#nanoTime()}.
+         * @return {@code true} to run on the next frame, otherwise the callback is removed.
+         */
+        boolean doAnimationFrame(long frameTimeNanos);
+    }
+
+    private static SwipeAnimationScheduler sInstance;
+
+    private final ArrayList<AnimationCallback> mCallbacks = new ArrayList<>();
+
+    /**
+     * The one-shot callbacks that run after {@link #mCallbacks} in the frame, swapped with
+     * {@link #mRunningFrameEndCallbacks} while they run so that posting from them never allocates.
+     */
+    private ArrayList<AnimationCallback> mFrameEndCallbacks = new ArrayList<>();
+    private ArrayList<AnimationCallback> mRunningFrameEndCallbacks = new ArrayList<>();
+    private FrameSource mFrameSource;
+
+    private boolean mFramePosted;
+    private boolean mInFrame;
+    private boolean mHasRemovedCallbacks;
+    private long mFrameTimeNanos;
+
+    static SwipeAnimationScheduler getInstance() {
+        if (sInstance == null) {
+            sInstance = new SwipeAnimationScheduler();
+        }
+        return sInstance;
+    }
+
+    private SwipeAnimationScheduler() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mFrameSource = new ChoreographerFrameSource(this);
+        } else {
+            mFrameSource = new HandlerFrameSource(this);
+        }
+    }
+
+    /**
+     * Replace the source of frames, so that the local tests step the frames with a virtual clock.
+     * The frame already posted is moved to the new source.
+     */
+    @VisibleForTesting
+    void setFrameSource(FrameSource frameSource) {
+        if (mFramePosted) {
+            mFrameSource.cancelFrame();
+        }
+        mFrameSource = frameSource;
+        if (mFramePosted) {
+            mFrameSource.postFrame();
+        }
+    }
+
+    @VisibleForTesting
+    FrameSource getFrameSource() {
+        return mFrameSource;
+    }
+
+    /**
+     * Drop every callback and the posted frame, so that a test leaves nothing behind for the next one.
+     */
+    @VisibleForTesting
+    void reset() {
+        if (mFramePosted) {
+            mFramePosted = false;
+            mFrameSource.cancelFrame();
+        }
+        mCallbacks.clear();
+        mFrameEndCallbacks.clear();
+        mRunningFrameEndCallbacks.clear();
+        mHasRemovedCallbacks = false;
+        mInFrame = false;
+    }
+
+    /**
+     * Run the callback from the next frame on, the same callback is added once.
+     */
+    void addCallback(AnimationCallback callback) {
+        if (!mCallbacks.contains(callback)) {
+            mCallbacks.add(callback);
+        }
+        if (!mFramePosted) {
+            mFramePosted = true;
+            mFrameSource.postFrame();
+        }
+    }
+
+    /**
+     * Stop running the callback, the frame callback is unregistered when no callback is left.
+     */
+    void removeCallback(AnimationCallback callback) {
+        final int index = mCallbacks.indexOf(callback);
+        if (index < 0) {
+            return;
+        }
+        if (mInFrame) {
+            // The list is being iterated, clean up after the frame.
+            mCallbacks.set(index, null);
+            mHasRemovedCallbacks = true;
+        } else {
+            mCallbacks.remove(index);
+            if (mCallbacks.isEmpty() && mFrameEndCallbacks.isEmpty() && mFramePosted) {
+                mFramePosted = false;
+                mFrameSource.cancelFrame();
+            }
+        }
+    }
+
+    /**
+     * Run the callback once, after the callbacks of the current frame, or of the next frame when no frame is running.
+     * It lets the work that follows several changes in one frame, such as notifying observers, run once per frame.
+     * The value returned by the callback is ignored, the same callback is posted once.
+     */
+    void postFrameEndCallback(AnimationCallback callback) {
+        if (!mFrameEndCallbacks.contains(callback)) {
+            mFrameEndCallbacks.add(callback);
+        }
+        // A running frame runs the end callbacks itself.
+        if (!mInFrame && !mFramePosted) {
+            mFramePosted = true;
+            mFrameSource.postFrame();
+        }
+    }
+
+    /**
+     * Cancel the callback posted by {@link #postFrameEndCallback(AnimationCallback)}.
+     */
+    void removeFrameEndCallback(AnimationCallback callback) {
+        final int index = mFrameEndCallbacks.indexOf(callback);
+        if (index < 0) {
+            return;
+        }
+        mFrameEndCallbacks.remove(index);
+        if (!mInFrame && mCallbacks.isEmpty() && mFrameEndCallbacks.isEmpty() && mFramePosted) {
+            mFramePosted = false;
+            mFrameSource.cancelFrame();
+        }
+    }
+
+    /**
+     * @return The time of current frame while the callbacks run, otherwise the time now.
+     */
+    long getFrameTimeNanos() {
+        return mInFrame ? mFrameTimeNanos : mFrameSource.nanoTime();
+    }
+
+    void doFrame(long frameTimeNanos) {
+        mFramePosted = false;
+        mInFrame = true;
+        mFrameTimeNanos = frameTimeNanos;
+        // The callbacks that added in the frame run from the next frame.
+        final int count = mCallbacks.size();
+        for (int i = 0; i < count; i++) {
+            final AnimationCallback callback = mCallbacks.get(i);
+            if (callback != null && !callback.doAnimationFrame(frameTimeNanos)) {
+                mCallbacks.set(i, null);
+                mHasRemovedCallbacks = true;
+            }
+        }
+        if (mHasRemovedCallbacks) {
+            mHasRemovedCallbacks = false;
+            for (int i = mCallbacks.size() - 1; i >= 0; i--) {
+                if (mCallbacks.get(i) == null) {
+                    mCallbacks.remove(i);
+                }
+            }
+        }
+        mInFrame = false;
+        if (!mFrameEndCallbacks.isEmpty()) {
+            // The end callbacks posted while these run go to the next frame.
+            final ArrayList<AnimationCallback> running = mFrameEndCallbacks;
+            mFrameEndCallbacks = mRunningFrameEndCallbacks;
+            mRunningFrameEndCallbacks = running;
+            for (int i = 0; i < running.size(); i++) {
+                running.get(i).doAnimationFrame(frameTimeNanos);
+            }
+            running.clear();
+        }
+        if ((!mCallbacks.isEmpty() || !mFrameEndCallbacks.isEmpty()) && !mFramePosted) {
+            mFramePosted = true;
+            mFrameSource.postFrame();
+        }
+    }
+
+    /**
+     * The source that calls {@link #doFrame(long)} once per frame.
+     */
+    abstract static class FrameSource {
+
+        abstract void postFrame();
+
+        abstract void cancelFrame();
+
+        long nanoTime() {
+            return System.nanoTime();
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerFrameSource extends FrameSource implements Choreographer.FrameCallback {
+        private final SwipeAnimationScheduler mScheduler;
+
+        /**
+         * Obtained on the first frame posted, from the main thread, since {@link Choreographer} is per thread
+         * and the scheduler may be created on the worker thread that inflates the layout.
+         */
+        private Choreographer mChoreographer;
+
+        ChoreographerFrameSource(SwipeAnimationScheduler scheduler) {
+            mScheduler = scheduler;
+        }
+
+        @Override
+        void postFrame() {
+            if (mChoreographer == null) {
+                mChoreographer = Choreographer.getInstance();
+            }
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        void cancelFrame() {
+            if (mChoreographer != null) {
+                mChoreographer.removeFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mScheduler.doFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * Frame source for the releases without {@link Choreographer}.
+     */
+    private static final class HandlerFrameSource extends FrameSource implements Runnable {
+        private static final long FRAME_DELAY = 10;
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+        private final SwipeAnimationScheduler mScheduler;
+
+        HandlerFrameSource(SwipeAnimationScheduler scheduler) {
+            mScheduler = scheduler;
+        }
+
+        @Override
+        void postFrame() {
+            mHandler.postDelayed(this, FRAME_DELAY);
+        }
+
+        @Override
+        void cancelFrame() {
+            mHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            mScheduler.doFrame(nanoTime());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.scott.swipe;
+
+/**
+ * The range the {@link ItemType#SWIPE_VIEW} may travel along the swipe orientation.
+ * <p>{@link SwipeLayout} works the bounds out once per layout, so clamping a drag offset
+ * is a couple of int compares instead of reading the menus and their layout params on every event.
+ * The class has no Android dependency.
+ */
+final class SwipeBounds {
+
+    /**
+     * The max offset toward the end, positive. 0 when the start menu is missing or disabled.
+     */
+    private int mStartLength;
+
+    /**
+     * The max offset toward the start, positive. 0 when the end menu is missing or disabled.
+     */
+    private int mEndLength;
+
+    /**
+     * @param startLength the length of start menu that can be revealed, 0 if none.
+     * @param endLength   the length of end menu that can be revealed, 0 if none.
+     */
+    void set(int startLength, int endLength) {
+        mStartLength = Math.max(0, startLength);
+        mEndLength = Math.max(0, endLength);
+    }
+
+    /**
+     * @return The max offset, reached when the start menu is fully opened.
+     */
+    int getMaxOffset() {
+        return mStartLength;
+    }
+
+    /**
+     * @return The min offset, reached when the end menu is fully opened.
+     */
+    int getMinOffset() {
+        return -mEndLength;
+    }
+
+    /**
+     * Clamp the delta so that the offset after it is applied stays in the bounds.
+     *
+     * @param offset the current offset of swipe view.
+     * @param delta  the delta that want to apply.
+     * @return the delta that can be applied.
+     */
+    int clampDelta(int offset, int delta) {
+        int target = offset + delta;
+        if (target > mStartLength) {
+            target = mStartLength;
+        } else if (target < -mEndLength) {
+            target = -mEndLength;
+        }
+        return target - offset;
+    }
+}
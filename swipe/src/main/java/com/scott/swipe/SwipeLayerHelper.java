@@ -0,0 +1,81 @@
+package com.scott.swipe;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Utility helper for promoting the views of {@link SwipeLayout} to hardware layers while the swipe view moves,
+ * so that each frame of a drag or settle composites the layers instead of drawing the content again.
+ */
+final class SwipeLayerHelper {
+
+    /**
+     * The swipe view and the revealed menus, at most one menu each side.
+     */
+    private static final int MAX_PROMOTED_COUNT = 3;
+
+    private final View[] mPromotedViews = new View[MAX_PROMOTED_COUNT];
+    private int mPromotedCount;
+
+    /**
+     * The flag of the views being moved, from the first promotion until {@link #demoteAll()}.
+     */
+    private boolean mActive;
+
+    /**
+     * Render the view into a hardware layer until {@link #demoteAll()}.
+     * The view that is cheap to draw, or has a layer set by others, keeps unchanged.
+     *
+     * @param view the view to promote
+     */
+    void promote(View view) {
+        mActive = true;
+        if (view == null || mPromotedCount == MAX_PROMOTED_COUNT || isPromoted(view) || !shouldPromote(view)) {
+            return;
+        }
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        mPromotedViews[mPromotedCount++] = view;
+    }
+
+    /**
+     * Release the layers of all promoted views.
+     */
+    void demoteAll() {
+        for (int i = 0; i < mPromotedCount; i++) {
+            mPromotedViews[i].setLayerType(View.LAYER_TYPE_NONE, null);
+            mPromotedViews[i] = null;
+        }
+        mPromotedCount = 0;
+        mActive = false;
+    }
+
+    /**
+     * @return {@code true} if the views are being moved, the views that appear should be promoted.
+     */
+    boolean isActive() {
+        return mActive;
+    }
+
+    private boolean isPromoted(View view) {
+        for (int i = 0; i < mPromotedCount; i++) {
+            if (mPromotedViews[i] == view) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A layer costs a texture upload and the memory of view size, it only pays off when the view is
+     * expensive to draw again. A single view or an empty group draws about as fast as the layer composites.
+     */
+    private static boolean shouldPromote(View view) {
+        if (!view.isHardwareAccelerated() || view.getLayerType() != View.LAYER_TYPE_NONE) {
+            return false;
+        }
+        if (view.getWidth() == 0 || view.getHeight() == 0) {
+            return false;
+        }
+        return view instanceof ViewGroup && ((ViewGroup) view).getChildCount() > 0;
+    }
+}
@@ -2,22 +2,30 @@ package com.scott.swipe;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.os.Build;
+import android.support.annotation.LayoutRes;
 import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
+import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Display;
+import android.view.Gravity;
+import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.VelocityTracker;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 import android.widget.FrameLayout;
 
 import java.lang.reflect.Constructor;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Author: Mu Li
@@ -42,8 +50,18 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
             AttributeSet.class
     };
 
-    static final ThreadLocal<Map<String, Constructor<EndSwipeHandler>>> sConstructors =
-            new ThreadLocal<>();
+    /**
+     * Process-wide, so that the layouts inflated on the worker threads such as by {@code AsyncLayoutInflater}
+     * share the reflected constructors with the main thread.
+     */
+    static final ConcurrentHashMap<String, Constructor<EndSwipeHandler>> sConstructors =
+            new ConcurrentHashMap<>();
+
+    /**
+     * One instance per configuration of the shareable handlers, see {@link EndSwipeHandler#isShareable()}.
+     */
+    static final ConcurrentHashMap<EndSwipeHandler, EndSwipeHandler> sSharedHandlers =
+            new ConcurrentHashMap<>();
 
     public static final int ITEM_TYPE_DEFAULT = ItemType.NONE_ITEM;
 
@@ -66,6 +84,13 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
      */
     private int mSwipeOrientation;
 
+    /**
+     * The current value of the {@link SwipeOffsetMode}, the default value is {@link SwipeOffsetMode#LAYOUT}
+     *
+     * @see SwipeOffsetMode
+     */
+    private int mOffsetMode;
+
     private ViewOffsetHelper mViewOffsetHelper;
 
     /**
@@ -83,6 +108,47 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
      */
     private View mEndMenu;
 
+    /**
+     * The layouts of the menus inflated on first reveal, 0 if none. See {@link #ensureMenu(int)}.
+     */
+    @LayoutRes
+    private int mStartMenuLayout;
+    @LayoutRes
+    private int mEndMenuLayout;
+
+    /**
+     * The lengths of the lazy menus before they are inflated and laid out.
+     */
+    private int mDeclaredStartMenuLength;
+    private int mDeclaredEndMenuLength;
+
+    /**
+     * The pool the lazy menus are taken from and given back to, null to keep them once inflated.
+     */
+    private SwipeMenuPool mMenuPool;
+
+    /**
+     * Whether the current menus were added by {@link #ensureMenu(int)}, only those go back to the pool.
+     */
+    private boolean mStartMenuLazy;
+    private boolean mEndMenuLazy;
+
+    /**
+     * Whether the closed menus are set {@link View#INVISIBLE}, so they drop out of draw and accessibility.
+     */
+    private boolean mHideClosedMenus;
+
+    /**
+     * The strip of a menu the swipe view exposes, reused by {@link #updateMenuClip()} and
+     * {@link #drawChild(Canvas, View, long)}.
+     */
+    private final Rect mMenuClipRect = new Rect();
+
+    /**
+     * Before API 18, whether {@link #drawChild(Canvas, View, long)} clipped a menu when last drawn.
+     */
+    private boolean mMenuClipped;
+
     /**
      * The flag of swipe main item
      */
@@ -98,11 +164,147 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
     private int mLastMotionY;
 
     private int mTouchSlop;
+    private int mMinimumFlingVelocity;
+    private int mMaximumFlingVelocity;
+
+    /**
+     * Determines speed during touch scrolling
+     */
+    private VelocityTracker mVelocityTracker;
+
+    /**
+     * The velocity of the settle caught by the touch down, it continues if the gesture does not drag.
+     */
+    private float mCaughtVelocity;
+
+    /**
+     * The flag of swipe view moved by the current gesture.
+     */
+    private boolean mDragMoved;
+
+    /**
+     * The flag of a settle caught by the touch down that has not become a drag, the swipe view holds
+     * where it was caught until the touch crosses the slop or lifts.
+     */
+    private boolean mSettleCaught;
 
     private OnSwipeStatusChangeListener mStatusChangeListener;
+
+    /**
+     * The listeners added by {@link #addOnSwipeStatusChangeListener(OnSwipeStatusChangeListener)},
+     * copied on write so that dispatching never allocates.
+     */
+    private OnSwipeStatusChangeListener[] mStatusChangeListeners = EMPTY_STATUS_LISTENERS;
+
+    private static final OnSwipeStatusChangeListener[] EMPTY_STATUS_LISTENERS = new OnSwipeStatusChangeListener[0];
+
+    /**
+     * Where the swipe view is in a swipe, read by {@link #isStartMenuOpen()} and the like.
+     */
+    @SwipeState
+    private int mSwipeState = SwipeState.IDLE_CLOSED;
+
+    /**
+     * The last resting state, one of {@link SwipeState#IDLE_CLOSED}, {@link SwipeState#OPEN_START} and
+     * {@link SwipeState#OPEN_END}. The status listeners are told when it changes.
+     */
+    @SwipeState
+    private int mRestingState = SwipeState.IDLE_CLOSED;
+
+    /**
+     * Set while a settle is caught by the touch, which goes on dragging instead of coming to rest.
+     */
+    private boolean mCatchingSettle;
+
+    private SwipeMetricsListener mMetricsListener;
+
+    /**
+     * The metrics of the current gesture, from the touch crossing the slop to the end of its settle.
+     */
+    private SwipeMetrics mMetrics;
+
+    private static final int STATUS_OPEN_START = 0;
+    private static final int STATUS_OPEN_END = 1;
+    private static final int STATUS_CLOSE_START = 2;
+    private static final int STATUS_CLOSE_END = 3;
+
+    /**
+     * The menu to open on the next layout, set by {@link #restoreOpenMenu(int)} before the menus have their size.
+     */
+    @ItemType
+    private int mPendingOpenMenu;
+    private boolean mPendingOpenAnimate;
+    private boolean mHasPendingOpenMenu;
+
+    /**
+     * Set by {@link SwipeSingleOpenPolicy#attach(SwipeLayout)}, told before this layout starts to open.
+     */
+    SwipeSingleOpenPolicy mSingleOpenPolicy;
     private OnSwipeRangeChangeListener mRangeChangeListener;
+
+    /**
+     * The listeners added by {@link #addOnSwipeRangeChangeListener(OnSwipeRangeChangeListener)}, copied on write.
+     */
+    private OnSwipeRangeChangeListener[] mRangeChangeListeners = EMPTY_RANGE_LISTENERS;
+
+    private static final OnSwipeRangeChangeListener[] EMPTY_RANGE_LISTENERS = new OnSwipeRangeChangeListener[0];
+
+    /**
+     * Dispatches the range once at the end of a frame, however many offsets the frame made.
+     */
+    private final SwipeAnimationScheduler.AnimationCallback mRangeDispatch = new SwipeAnimationScheduler.AnimationCallback() {
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            mRangeDispatchPosted = false;
+            dispatchRangeChanged();
+            return false;
+        }
+    };
+    private boolean mRangeDispatchPosted;
+
+    /**
+     * The range dispatched last, listeners are not called again for the same range.
+     */
+    private float mLastRange = Float.NaN;
     private EndSwipeHandler mEndSwipeHandler;
 
+    /**
+     * The drag bounds of swipe view, updated on every layout.
+     */
+    private final SwipeBounds mSwipeBounds = new SwipeBounds();
+
+    /**
+     * The length of menus along the swipe orientation, updated on every layout.
+     */
+    private int mStartMenuLength;
+    private int mEndMenuLength;
+
+    /**
+     * The flag of applying drag offsets once per frame instead of once per touch event.
+     */
+    private boolean mCoalesceOffsets;
+
+    /**
+     * The drag deltas that accumulated since the last frame applied them.
+     */
+    private int mPendingDeltaX;
+    private int mPendingDeltaY;
+    private boolean mPendingOffsetPosted;
+
+    /**
+     * The flag of rendering the moving views into hardware layers during drag and settle.
+     */
+    private boolean mHardwareLayerEnabled;
+    private final SwipeLayerHelper mLayerHelper = new SwipeLayerHelper();
+
+    private final Runnable mApplyPendingOffset = new Runnable() {
+        @Override
+        public void run() {
+            mPendingOffsetPosted = false;
+            applyPendingOffset();
+        }
+    };
+
     public SwipeLayout(Context context) {
         this(context, null);
     }
@@ -116,14 +318,50 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
 
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.SwipeLayout);
         mSwipeOrientation = typedArray.getInt(R.styleable.SwipeLayout_swipeOrientation, SwipeOrientation.HORIZONTAL);
+        mOffsetMode = typedArray.getInt(R.styleable.SwipeLayout_swipeOffsetMode, SwipeOffsetMode.LAYOUT);
         String name = typedArray.getString(R.styleable.SwipeLayout_swipeHandler);
         if (TextUtils.isEmpty(name)) {
             name = context.getString(R.string.swipeSnapHandler);
         }
-        mEndSwipeHandler = parseBehavior(context, attrs, name);
+        mEndSwipeHandler = share(parseBehavior(context, attrs, name));
+        mCoalesceOffsets = typedArray.getBoolean(R.styleable.SwipeLayout_swipeCoalesceOffsets, false);
+        mHardwareLayerEnabled = typedArray.getBoolean(R.styleable.SwipeLayout_swipeHardwareLayer, false);
+        mStartMenuLayout = typedArray.getResourceId(R.styleable.SwipeLayout_startMenuLayout, 0);
+        mEndMenuLayout = typedArray.getResourceId(R.styleable.SwipeLayout_endMenuLayout, 0);
+        mHideClosedMenus = typedArray.getBoolean(R.styleable.SwipeLayout_swipeHideClosedMenus, false);
+        mDeclaredStartMenuLength = typedArray.getDimensionPixelSize(R.styleable.SwipeLayout_startMenuLength, 0);
+        mDeclaredEndMenuLength = typedArray.getDimensionPixelSize(R.styleable.SwipeLayout_endMenuLength, 0);
         typedArray.recycle();
 
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        final ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    /**
+     * Load the {@link EndSwipeHandler} classes and cache their constructors ahead of time, such as at app start,
+     * so that inflating the rows later, on any thread, costs no reflection. Safe to call from any thread.
+     * The names with a registered {@link EndSwipeHandler.Factory} need no warm up and are skipped.
+     *
+     * @param context the context to resolve the names relative to the app package
+     * @param names   the handler names as used by {@code app:swipeHandler}, the default handler if none.
+     */
+    public static void prewarm(Context context, String... names) {
+        if (names == null || names.length == 0) {
+            names = new String[]{context.getString(R.string.swipeSnapHandler)};
+        }
+        for (String name : names) {
+            if (TextUtils.isEmpty(name) || EndSwipeHandler.getFactory(name) != null) {
+                continue;
+            }
+            final String fullName = getHandlerFullName(context, name);
+            try {
+                getHandlerConstructor(context, fullName);
+            } catch (Exception e) {
+                throw new RuntimeException("Could not load Handler subclass " + fullName, e);
+            }
+        }
     }
 
     static EndSwipeHandler parseBehavior(Context context, AttributeSet attrs, String name) {
@@ -131,6 +369,33 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
             return null;
         }
 
+        final EndSwipeHandler.Factory factory = EndSwipeHandler.getFactory(name);
+        if (factory != null) {
+            return factory.create(context, attrs);
+        }
+
+        // Unknown name, fall back to reflection.
+        final String fullName = getHandlerFullName(context, name);
+        try {
+            return getHandlerConstructor(context, fullName).newInstance(context, attrs);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not inflate Handler subclass " + fullName, e);
+        }
+    }
+
+    /**
+     * @return The instance equal to the handler that is already shared by the other layouts,
+     * or the handler itself if it is the first one or not shareable.
+     */
+    private static EndSwipeHandler share(EndSwipeHandler handler) {
+        if (handler == null || !handler.isShareable()) {
+            return handler;
+        }
+        final EndSwipeHandler shared = sSharedHandlers.putIfAbsent(handler, handler);
+        return shared != null ? shared : handler;
+    }
+
+    private static String getHandlerFullName(Context context, String name) {
         final String fullName;
         if (name.startsWith(".")) {
             // Relative to the app package. Prepend the app package name.
@@ -144,48 +409,559 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                     ? (WIDGET_PACKAGE_NAME + '.' + name)
                     : name;
         }
+        return fullName;
+    }
 
-        try {
-            Map<String, Constructor<EndSwipeHandler>> constructors = sConstructors.get();
-            if (constructors == null) {
-                constructors = new HashMap<>();
-                sConstructors.set(constructors);
-            }
-            Constructor<EndSwipeHandler> c = constructors.get(fullName);
-            if (c == null) {
-                final Class<EndSwipeHandler> clazz = (Class<EndSwipeHandler>) Class.forName(fullName, true, context.getClassLoader());
-                c = clazz.getConstructor(CONSTRUCTOR_PARAMS);
-                c.setAccessible(true);
-                constructors.put(fullName, c);
+    private static Constructor<EndSwipeHandler> getHandlerConstructor(Context context, String fullName) throws Exception {
+        Constructor<EndSwipeHandler> c = sConstructors.get(fullName);
+        if (c == null) {
+            // Two threads may resolve the same class at once, both get a valid constructor and one is kept.
+            final Class<EndSwipeHandler> clazz = (Class<EndSwipeHandler>) Class.forName(fullName, true, context.getClassLoader());
+            c = clazz.getConstructor(CONSTRUCTOR_PARAMS);
+            c.setAccessible(true);
+            final Constructor<EndSwipeHandler> existing = sConstructors.putIfAbsent(fullName, c);
+            if (existing != null) {
+                c = existing;
             }
-            return c.newInstance(context, attrs);
-        } catch (Exception e) {
-            throw new RuntimeException("Could not inflate Handler subclass " + fullName, e);
         }
+        return c;
     }
 
     @Override
     protected void onFinishInflate() {
         super.onFinishInflate();
+        // The roles are kept by onViewAdded while the children are inflated, nothing to scan here.
+    }
 
-        /*
-         * The layout holds these references to quick access.
-         */
-        mSwipeItem = getChildByItemType(ItemType.SWIPE_VIEW);
-        mViewOffsetHelper = new ViewOffsetHelper(mSwipeItem);
-        mViewOffsetHelper.setOnViewOffsetListener(this);
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        final ViewGroup.LayoutParams layoutParams = child.getLayoutParams();
+        if (layoutParams instanceof LayoutParams) {
+            ((LayoutParams) layoutParams).mOwner = this;
+            // The first child of a role keeps it, as the scan did.
+            switch (((LayoutParams) layoutParams).getItemType()) {
+                case ItemType.SWIPE_VIEW:
+                    if (mSwipeItem == null) {
+                        setSwipeItem(child);
+                    }
+                    break;
+                case ItemType.START_MENU:
+                    if (mStartMenu == null) {
+                        mStartMenu = child;
+                    }
+                    break;
+                case ItemType.END_MENU:
+                    if (mEndMenu == null) {
+                        mEndMenu = child;
+                    }
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        final ViewGroup.LayoutParams layoutParams = child.getLayoutParams();
+        if (layoutParams instanceof LayoutParams && ((LayoutParams) layoutParams).mOwner == this) {
+            ((LayoutParams) layoutParams).mOwner = null;
+        }
+        if (child == mSwipeItem) {
+            setSwipeItem(getChildByItemType(ItemType.SWIPE_VIEW));
+        } else if (child == mStartMenu) {
+            mStartMenuLazy = false;
+            mStartMenu = getChildByItemType(ItemType.START_MENU);
+        } else if (child == mEndMenu) {
+            mEndMenuLazy = false;
+            mEndMenu = getChildByItemType(ItemType.END_MENU);
+        }
+    }
+
+    /**
+     * Called by {@link LayoutParams#setItemType(int)} when a child changes its role, which is rare,
+     * so the roles are found again from the children.
+     */
+    void onChildItemTypeChanged() {
+        final View swipeItem = getChildByItemType(ItemType.SWIPE_VIEW);
+        if (swipeItem != mSwipeItem) {
+            setSwipeItem(swipeItem);
+        }
         mStartMenu = getChildByItemType(ItemType.START_MENU);
         mEndMenu = getChildByItemType(ItemType.END_MENU);
+        requestLayout();
+    }
+
+    private void setSwipeItem(View swipeItem) {
+        if (mViewOffsetHelper != null) {
+            // The old swipe view is let go without telling its settle to this layout.
+            mViewOffsetHelper.setOnViewOffsetListener(null);
+            mViewOffsetHelper.finish();
+        }
+        mSwipeItem = swipeItem;
+        mSwipeState = SwipeState.IDLE_CLOSED;
+        mRestingState = SwipeState.IDLE_CLOSED;
+        if (swipeItem != null) {
+            mViewOffsetHelper = new ViewOffsetHelper(swipeItem);
+            mViewOffsetHelper.setOffsetMode(mOffsetMode);
+            mViewOffsetHelper.setOnViewOffsetListener(this);
+        } else {
+            mViewOffsetHelper = null;
+        }
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         //fix MeasureSpec in recycler view.
-        super.onMeasure(getChildMeasureSpec(MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(widthMeasureSpec), MeasureSpec.EXACTLY), 0, getLayoutParams().width), heightMeasureSpec);
+        widthMeasureSpec = getChildMeasureSpec(MeasureSpec.makeMeasureSpec(MeasureSpec.getSize(widthMeasureSpec), MeasureSpec.EXACTLY), 0, getLayoutParams().width);
+
+        /*
+         * Unlike FrameLayout, the size of layout comes from the children except the menus: a wrap_content row
+         * is as large as its swipe view, a larger menu does not grow it. This is deliberate, the menus follow
+         * the size of layout across the swipe orientation, so they are measured last.
+         */
+        final int count = getChildCount();
+        int maxWidth = 0;
+        int maxHeight = 0;
+        int childState = 0;
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() == GONE || child == mStartMenu || child == mEndMenu) {
+                continue;
+            }
+            measureChildWithMargins(child, widthMeasureSpec, 0, heightMeasureSpec, 0);
+            final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+            maxWidth = Math.max(maxWidth, child.getMeasuredWidth() + lp.leftMargin + lp.rightMargin);
+            maxHeight = Math.max(maxHeight, child.getMeasuredHeight() + lp.topMargin + lp.bottomMargin);
+            childState = combineMeasuredStates(childState, child.getMeasuredState());
+        }
+        maxWidth = Math.max(maxWidth + getPaddingLeft() + getPaddingRight(), getSuggestedMinimumWidth());
+        maxHeight = Math.max(maxHeight + getPaddingTop() + getPaddingBottom(), getSuggestedMinimumHeight());
+        setMeasuredDimension(resolveSizeAndState(maxWidth, widthMeasureSpec, childState),
+                resolveSizeAndState(maxHeight, heightMeasureSpec, childState << MEASURED_HEIGHT_STATE_SHIFT));
+
+        final int exactWidthSpec = MeasureSpec.makeMeasureSpec(getMeasuredWidth(), MeasureSpec.EXACTLY);
+        final int exactHeightSpec = MeasureSpec.makeMeasureSpec(getMeasuredHeight(), MeasureSpec.EXACTLY);
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+            if (child == mStartMenu || child == mEndMenu) {
+                measureMenu(child, widthMeasureSpec, heightMeasureSpec, exactWidthSpec, exactHeightSpec);
+            } else {
+                remeasureMatchParent(child, widthMeasureSpec, heightMeasureSpec, exactWidthSpec, exactHeightSpec);
+            }
+        }
+        updateSwipeBounds();
+    }
+
+    /**
+     * Measure the child that matches the layout once the size of layout is known. FrameLayout does the same,
+     * but there the size of layout includes the menus.
+     */
+    private void remeasureMatchParent(View child, int widthMeasureSpec, int heightMeasureSpec,
+                                      int exactWidthSpec, int exactHeightSpec) {
+        final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+        final boolean matchWidth = lp.width == LayoutParams.MATCH_PARENT
+                && MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.EXACTLY;
+        final boolean matchHeight = lp.height == LayoutParams.MATCH_PARENT
+                && MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.EXACTLY;
+        if (!matchWidth && !matchHeight) {
+            return;
+        }
+        final int childWidthSpec = matchWidth
+                ? MeasureSpec.makeMeasureSpec(Math.max(0, getMeasuredWidth() - getPaddingLeft() - getPaddingRight()
+                - lp.leftMargin - lp.rightMargin), MeasureSpec.EXACTLY)
+                : getChildMeasureSpec(exactWidthSpec, getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin, lp.width);
+        final int childHeightSpec = matchHeight
+                ? MeasureSpec.makeMeasureSpec(Math.max(0, getMeasuredHeight() - getPaddingTop() - getPaddingBottom()
+                - lp.topMargin - lp.bottomMargin), MeasureSpec.EXACTLY)
+                : getChildMeasureSpec(exactHeightSpec, getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin, lp.height);
+        child.measure(childWidthSpec, childHeightSpec);
+    }
+
+    /**
+     * Measure the menu along the swipe orientation by the spec of layout, and across it by the measured size of layout.
+     * A menu measured with the same specs and no layout requested is skipped by the measure cache of View.
+     */
+    private void measureMenu(View menu, int widthMeasureSpec, int heightMeasureSpec,
+                             int exactWidthSpec, int exactHeightSpec) {
+        final LayoutParams lp = (LayoutParams) menu.getLayoutParams();
+        final int horizontalUsed = getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin;
+        final int verticalUsed = getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin;
+        final int childWidthSpec;
+        final int childHeightSpec;
+        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+            childWidthSpec = getChildMeasureSpec(widthMeasureSpec, horizontalUsed, lp.width);
+            childHeightSpec = getChildMeasureSpec(exactHeightSpec, verticalUsed, lp.height);
+        } else {
+            childWidthSpec = getChildMeasureSpec(exactWidthSpec, horizontalUsed, lp.width);
+            childHeightSpec = getChildMeasureSpec(heightMeasureSpec, verticalUsed, lp.height);
+        }
+        menu.measure(childWidthSpec, childHeightSpec);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        // FrameLayout puts the swipe view back to its layout position, keep the offset it had in the same pass,
+        // so an open row survives the content changes without another layout.
+        int offsetLeft = 0;
+        int offsetTop = 0;
+        if (mViewOffsetHelper != null) {
+            offsetLeft = mViewOffsetHelper.getLeftAndRightOffset();
+            offsetTop = mViewOffsetHelper.getTopAndBottomOffset();
+        }
+        super.onLayout(changed, left, top, right, bottom);
+        if (mViewOffsetHelper != null) {
+            mViewOffsetHelper.onViewLayout(offsetLeft, offsetTop);
+        }
+        updateSwipeBounds();
+        if (mHasPendingOpenMenu) {
+            mHasPendingOpenMenu = false;
+            startOpenMenu(mPendingOpenMenu, mPendingOpenAnimate);
+        }
+        updateMenuVisibility();
+        updateMenuClip();
+    }
+
+    /**
+     * Before API 18, skip the menu the opaque swipe view covers, and clip the menu it partly covers to
+     * the exposed strip, so that a row is not drawn two or three times over. From API 18 the menus carry
+     * the clip themselves, see {@link #updateMenuClip()}.
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2
+                && (child == mStartMenu || child == mEndMenu) && isSwipeItemOpaque()) {
+            if (!computeExposedMenuRect(child, mMenuClipRect)) {
+                return false;
+            }
+            final int saveCount = canvas.save();
+            canvas.clipRect(mMenuClipRect);
+            final boolean more = super.drawChild(canvas, child, drawingTime);
+            canvas.restoreToCount(saveCount);
+            return more;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    /**
+     * Clip the menus to the strip the opaque swipe view exposes. From API 18 the clip bounds are a property
+     * of each menu, so moving the swipe view records neither this layout nor the menus again. Before, the clip
+     * is drawn by {@link #drawChild(Canvas, View, long)}, and this layout is invalidated only while it clips.
+     */
+    private void updateMenuClip() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            updateMenuClipBounds(mStartMenu);
+            updateMenuClipBounds(mEndMenu);
+        } else {
+            final boolean menuClipped = (mStartMenu != null || mEndMenu != null) && isSwipeItemOpaque()
+                    && getSwipeOffset() != 0;
+            if (menuClipped || mMenuClipped) {
+                invalidate();
+            }
+            mMenuClipped = menuClipped;
+        }
+    }
+
+    @RequiresApi(value = Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void updateMenuClipBounds(View menu) {
+        if (menu == null) {
+            return;
+        }
+        if (!isSwipeItemOpaque()) {
+            menu.setClipBounds(null);
+            return;
+        }
+        if (computeExposedMenuRect(menu, mMenuClipRect)) {
+            // The clip bounds are in the coordinates of the menu.
+            mMenuClipRect.offset(-(menu.getLeft() + Math.round(menu.getTranslationX())),
+                    -(menu.getTop() + Math.round(menu.getTranslationY())));
+        } else {
+            mMenuClipRect.setEmpty();
+        }
+        // Unchanged bounds are ignored by the view.
+        menu.setClipBounds(mMenuClipRect);
+    }
+
+    /**
+     * @return The offset of the swipe view along the swipe orientation, 0 if it is closed.
+     */
+    private int getSwipeOffset() {
+        if (mViewOffsetHelper == null) {
+            return 0;
+        }
+        return mSwipeOrientation == SwipeOrientation.HORIZONTAL
+                ? mViewOffsetHelper.getLeftAndRightOffset() : mViewOffsetHelper.getTopAndBottomOffset();
+    }
+
+    private boolean isSwipeItemOpaque() {
+        return mSwipeItem != null && mSwipeItem.getVisibility() == VISIBLE && mSwipeItem.isOpaque();
+    }
+
+    /**
+     * @param menu the start or end menu
+     * @param rect set to the part of menu that the swipe view does not cover, in the coordinates of this layout
+     * @return {@code false} if the swipe view covers the whole menu.
+     */
+    private boolean computeExposedMenuRect(View menu, Rect rect) {
+        final int swipeLeft = mSwipeItem.getLeft() + Math.round(mSwipeItem.getTranslationX());
+        final int swipeTop = mSwipeItem.getTop() + Math.round(mSwipeItem.getTranslationY());
+        final int swipeRight = swipeLeft + mSwipeItem.getWidth();
+        final int swipeBottom = swipeTop + mSwipeItem.getHeight();
+        final int menuLeft = menu.getLeft() + Math.round(menu.getTranslationX());
+        final int menuTop = menu.getTop() + Math.round(menu.getTranslationY());
+        final int menuRight = menuLeft + menu.getWidth();
+        final int menuBottom = menuTop + menu.getHeight();
+        rect.set(menuLeft, menuTop, menuRight, menuBottom);
+        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+            if (swipeTop > menuTop || swipeBottom < menuBottom) {
+                // The menu shows above or below the swipe view, leave it whole.
+                return true;
+            }
+            if (swipeLeft <= menuLeft && swipeRight >= menuRight) {
+                return false;
+            }
+            if (swipeLeft > menuLeft && swipeRight >= menuRight) {
+                rect.right = Math.min(menuRight, swipeLeft);
+            } else if (swipeRight < menuRight && swipeLeft <= menuLeft) {
+                rect.left = Math.max(menuLeft, swipeRight);
+            }
+        } else {
+            if (swipeLeft > menuLeft || swipeRight < menuRight) {
+                return true;
+            }
+            if (swipeTop <= menuTop && swipeBottom >= menuBottom) {
+                return false;
+            }
+            if (swipeTop > menuTop && swipeBottom >= menuBottom) {
+                rect.bottom = Math.min(menuBottom, swipeTop);
+            } else if (swipeBottom < menuBottom && swipeTop <= menuTop) {
+                rect.top = Math.max(menuTop, swipeBottom);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Set the closed menus {@link View#INVISIBLE} and the revealed menu {@link View#VISIBLE},
+     * when {@link #isHideClosedMenus()}. The menus that are {@link View#GONE} are left alone.
+     */
+    private void updateMenuVisibility() {
+        if (!mHideClosedMenus || mViewOffsetHelper == null) {
+            return;
+        }
+        final int offset = mSwipeOrientation == SwipeOrientation.HORIZONTAL
+                ? mViewOffsetHelper.getLeftAndRightOffset() : mViewOffsetHelper.getTopAndBottomOffset();
+        setMenuVisible(mStartMenu, offset > 0);
+        setMenuVisible(mEndMenu, offset < 0);
+    }
+
+    private static void setMenuVisible(View menu, boolean visible) {
+        if (menu == null || menu.getVisibility() == GONE) {
+            return;
+        }
+        final int visibility = visible ? VISIBLE : INVISIBLE;
+        if (menu.getVisibility() != visibility) {
+            menu.setVisibility(visibility);
+        }
+    }
+
+    /**
+     * Sets whether the closed menus are set {@link View#INVISIBLE}, so they are neither drawn
+     * nor traversed by accessibility until the swipe view starts to reveal them.
+     *
+     * @param hideClosedMenus {@code true} hide the closed menus.
+     */
+    public void setHideClosedMenus(boolean hideClosedMenus) {
+        if (mHideClosedMenus == hideClosedMenus) {
+            return;
+        }
+        mHideClosedMenus = hideClosedMenus;
+        if (hideClosedMenus) {
+            updateMenuVisibility();
+        } else {
+            setMenuVisible(mStartMenu, true);
+            setMenuVisible(mEndMenu, true);
+        }
+    }
+
+    public boolean isHideClosedMenus() {
+        return mHideClosedMenus;
+    }
+
+    /**
+     * Open the menu or close the swipe view immediately, without animation and without requesting layout.
+     * If the layout is pending, the state is applied in that layout pass, when the menus have their size.
+     *
+     * @param menu {@link ItemType#START_MENU}, {@link ItemType#END_MENU}, or {@link ItemType#NONE_ITEM} to close.
+     */
+    void restoreOpenMenu(@ItemType int menu) {
+        if (mViewOffsetHelper == null) {
+            return;
+        }
+        applyPendingOffset();
+        finishEndSwipe();
+        if (menu == ItemType.START_MENU || menu == ItemType.END_MENU) {
+            ensureMenu(menu);
+        }
+        if (menu == ItemType.NONE_ITEM) {
+            // Closing needs no menu length, so it never waits for the layout.
+            mHasPendingOpenMenu = false;
+            applyOpenMenu(menu);
+            recycleMenus();
+        } else if (ViewCompat.isLaidOut(this) && !isLayoutRequested()) {
+            mHasPendingOpenMenu = false;
+            applyOpenMenu(menu);
+        } else {
+            mPendingOpenMenu = menu;
+            mPendingOpenAnimate = false;
+            mHasPendingOpenMenu = true;
+        }
+    }
+
+    private void applyOpenMenu(@ItemType int menu) {
+        final int offset;
+        if (menu == ItemType.START_MENU) {
+            offset = mStartMenuLength;
+        } else if (menu == ItemType.END_MENU) {
+            offset = -mEndMenuLength;
+        } else {
+            offset = 0;
+        }
+        // The offset is absolute, the swipe view may be open on either side.
+        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+            mViewOffsetHelper.offsetByLeft(mViewOffsetHelper.getLayoutLeft() + offset);
+        } else {
+            mViewOffsetHelper.offsetByTop(mViewOffsetHelper.getLayoutTop() + offset);
+        }
+    }
+
+    /**
+     * Work out the menu lengths and the drag bounds once, so the drag path never reads them from the menus.
+     */
+    private void updateSwipeBounds() {
+        if (mStartMenu == null && mStartMenuLayout != 0) {
+            mStartMenuLength = mDeclaredStartMenuLength;
+        } else {
+            mStartMenuLength = getMenuLength(mStartMenu);
+        }
+        if (mEndMenu == null && mEndMenuLayout != 0) {
+            mEndMenuLength = mDeclaredEndMenuLength;
+        } else {
+            mEndMenuLength = getMenuLength(mEndMenu);
+        }
+        mSwipeBounds.set(isMenuEnable(mStartMenu, mStartMenuLayout) ? mStartMenuLength : 0,
+                isMenuEnable(mEndMenu, mEndMenuLayout) ? mEndMenuLength : 0);
+    }
+
+    /**
+     * @return {@code true} if the menu is enabled, or not inflated yet but declared by a layout.
+     */
+    private static boolean isMenuEnable(View menu, @LayoutRes int menuLayout) {
+        return menu == null ? menuLayout != 0 : isMenuEnable(menu);
+    }
+
+    /**
+     * Inflate the menu declared by {@code app:startMenuLayout} or {@code app:endMenuLayout} if it is not yet.
+     *
+     * @param menu {@link ItemType#START_MENU} or {@link ItemType#END_MENU}
+     * @return {@code true} if the menu is added now, it has no size until the next layout pass.
+     */
+    private boolean ensureMenu(@ItemType int menu) {
+        final int menuLayout;
+        if (menu == ItemType.START_MENU) {
+            if (mStartMenu != null || mStartMenuLayout == 0) {
+                return false;
+            }
+            menuLayout = mStartMenuLayout;
+        } else {
+            if (mEndMenu != null || mEndMenuLayout == 0) {
+                return false;
+            }
+            menuLayout = mEndMenuLayout;
+        }
+        final View menuView = mMenuPool != null
+                ? mMenuPool.acquire(this, menuLayout, menu)
+                : LayoutInflater.from(getContext()).inflate(menuLayout, this, false);
+        ViewGroup.LayoutParams params = menuView.getLayoutParams();
+        final LayoutParams layoutParams = params instanceof LayoutParams
+                ? (LayoutParams) params : generateDefaultLayoutParams();
+        layoutParams.setItemType(menu);
+        if (menu == ItemType.END_MENU && layoutParams.gravity == LayoutParams.UNSPECIFIED_GRAVITY) {
+            layoutParams.gravity = mSwipeOrientation == SwipeOrientation.HORIZONTAL ? GravityCompat.END : Gravity.BOTTOM;
+        }
+        // Behind the swipe view, so it is drawn first.
+        addView(menuView, 0, layoutParams);
+        if (menu == ItemType.START_MENU) {
+            mStartMenuLazy = true;
+        } else {
+            mEndMenuLazy = true;
+        }
+        return true;
+    }
+
+    /**
+     * Give the lazy menus back to the pool, once the swipe view is closed.
+     */
+    private void recycleMenus() {
+        if (mMenuPool == null || !isSwipeViewClosed()) {
+            return;
+        }
+        if (mStartMenuLazy && mStartMenu != null) {
+            final View startMenu = mStartMenu;
+            mStartMenuLazy = false;
+            removeView(startMenu);
+            mMenuPool.release(mStartMenuLayout, startMenu);
+        }
+        if (mEndMenuLazy && mEndMenu != null) {
+            final View endMenu = mEndMenu;
+            mEndMenuLazy = false;
+            removeView(endMenu);
+            mMenuPool.release(mEndMenuLayout, endMenu);
+        }
+    }
+
+    /**
+     * Share the lazy menus declared by {@code app:startMenuLayout} and {@code app:endMenuLayout} with other layouts.
+     * The menus are taken from the pool when this layout starts to reveal them, and given back when it closes.
+     *
+     * @param menuPool the pool, null to keep the menus once inflated.
+     */
+    public void setMenuPool(SwipeMenuPool menuPool) {
+        mMenuPool = menuPool;
+        recycleMenus();
+    }
+
+    public SwipeMenuPool getMenuPool() {
+        return mMenuPool;
+    }
+
+    private static boolean isMenuEnable(View menu) {
+        return menu != null && ((LayoutParams) menu.getLayoutParams()).isMenuEnable();
     }
 
     @Override
     public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.beginSection(SwipeTrace.SECTION_INTERCEPT);
+            SwipeTrace.countEvent();
+        }
+        try {
+            return interceptTouchEvent(ev);
+        } finally {
+            if (SwipeTrace.ENABLED) {
+                SwipeTrace.endSection();
+            }
+        }
+    }
+
+    private boolean interceptTouchEvent(MotionEvent ev) {
+        if (mViewOffsetHelper == null) {
+            // There is no swipe view to move.
+            return false;
+        }
         final int action = ev.getAction();
 
         /*
@@ -209,6 +985,14 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                 mLastMotionX = (int) ev.getX();
                 mLastMotionY = (int) ev.getY();
                 mActivePointerId = ev.getPointerId(0);
+                initOrResetVelocityTracker();
+                mVelocityTracker.addMovement(ev);
+                mDragMoved = false;
+                /*
+                 * If the swipe view is settling, catch it where it is. The drag only starts when the
+                 * touch crosses the slop, so the parent may still scroll.
+                 */
+                mSettleCaught = catchSettle();
                 break;
             case MotionEvent.ACTION_MOVE:
 
@@ -225,17 +1009,23 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                     break;
                 }
 
+                if (mVelocityTracker != null) {
+                    mVelocityTracker.addMovement(ev);
+                }
                 final int distance = getDistanceBySwipeOrientation(ev);
                 if (distance > mTouchSlop) {
-                    mIsBeingDragged = true;
-                    final ViewParent parent = getParent();
-                    if (parent != null) {
-                        parent.requestDisallowInterceptTouchEvent(true);
-                    }
+                    startDrag();
                 }
                 break;
             case MotionEvent.ACTION_CANCEL:
             case MotionEvent.ACTION_UP:
+                if (mSettleCaught && !mIsBeingDragged) {
+                    // A child took the touch that caught the settle, continue it with the velocity it had.
+                    mSettleCaught = false;
+                    final float velocity = mCaughtVelocity;
+                    mCaughtVelocity = 0;
+                    endSwipe(velocity);
+                }
                 mIsBeingDragged = false;
                 mActivePointerId = INVALID_POINTER;
                 break;
@@ -245,8 +1035,31 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.beginSection(SwipeTrace.SECTION_TOUCH);
+            SwipeTrace.countEvent();
+        }
+        try {
+            return touchEvent(event);
+        } finally {
+            if (SwipeTrace.ENABLED) {
+                SwipeTrace.endSection();
+            }
+        }
+    }
+
+    private boolean touchEvent(MotionEvent event) {
+        if (mViewOffsetHelper == null) {
+            return super.onTouchEvent(event);
+        }
         final int actionMasked = event.getActionMasked();
 
+        if (actionMasked == MotionEvent.ACTION_DOWN || mVelocityTracker == null) {
+            // The tracker is recycled on detach, a gesture may go on after the row attaches again.
+            initOrResetVelocityTracker();
+        }
+        mVelocityTracker.addMovement(event);
+
         switch (actionMasked) {
             case MotionEvent.ACTION_DOWN: {
                 if (getChildCount() == 0) {
@@ -258,10 +1071,13 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                         parent.requestDisallowInterceptTouchEvent(true);
                     }
                 }
-                if (!mEndSwipeHandler.isFinish()) {
-                    mEndSwipeHandler.finish();
+                mDragMoved = false;
+                if (catchSettle()) {
+                    mSettleCaught = true;
                 }
                 // Remember where the motion event started
+                mLastMotionX = (int) event.getX();
+                mLastMotionY = (int) event.getY();
                 mActivePointerId = event.getPointerId(0);
                 break;
             }
@@ -278,11 +1094,7 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                 int deltaY = y - mLastMotionY;
 
                 if (!mIsBeingDragged && getDistanceBySwipeOrientation(event) > mTouchSlop) {
-                    final ViewParent parent = getParent();
-                    if (parent != null) {
-                        parent.requestDisallowInterceptTouchEvent(true);
-                    }
-                    mIsBeingDragged = true;
+                    startDrag();
                     if (deltaY > 0) {
                         deltaX -= mTouchSlop;
                         deltaY -= mTouchSlop;
@@ -292,14 +1104,28 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                     }
                 }
                 if (mIsBeingDragged) {
-                    offsetSwipeItem(deltaX, deltaY);
+                    ensureMenuToward(deltaX, deltaY);
+                    mDragMoved |= deltaX != 0 || deltaY != 0;
+                    if (mCoalesceOffsets) {
+                        postOffsetSwipeItem(deltaX, deltaY);
+                    } else {
+                        offsetSwipeItem(deltaX, deltaY);
+                    }
                 }
                 break;
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
+                applyPendingOffset();
+                float velocity = actionMasked == MotionEvent.ACTION_UP ? computeReleaseVelocity() : 0;
+                if (!mDragMoved && mCaughtVelocity != 0) {
+                    // The caught settle was not dragged, continue it with the velocity it had.
+                    velocity = mCaughtVelocity;
+                }
+                mCaughtVelocity = 0;
+                mSettleCaught = false;
                 mIsBeingDragged = false;
                 mActivePointerId = INVALID_POINTER;
-                mEndSwipeHandler.onEndSwipe(this, mViewOffsetHelper);
+                endSwipe(velocity);
                 break;
         }
         /*
@@ -312,6 +1138,121 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
         return true;
     }
 
+    /**
+     * Hand the released swipe view to the end swipe handler.
+     *
+     * @param velocity The release velocity along the swipe orientation, in pixels per second.
+     */
+    private void endSwipe(float velocity) {
+        mEndSwipeHandler.onEndSwipe(this, mViewOffsetHelper, velocity);
+        if ((mSwipeState == SwipeState.DRAGGING || mSwipeState == SwipeState.SETTLING)
+                && mEndSwipeHandler.isFinish(mViewOffsetHelper)) {
+            // The handler did not settle, the swipe view rests where the finger left it.
+            updateRestingState();
+            dispatchMetrics();
+        }
+    }
+
+    /**
+     * The tracker is obtained once and cleared for every gesture.
+     */
+    private void initOrResetVelocityTracker() {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        } else {
+            mVelocityTracker.clear();
+        }
+    }
+
+    private void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    /**
+     * @return The velocity of active pointer along the swipe orientation, in pixels per second.
+     */
+    private float computeReleaseVelocity() {
+        if (mActivePointerId == INVALID_POINTER) {
+            return 0;
+        }
+        mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+            return mVelocityTracker.getXVelocity(mActivePointerId);
+        } else {
+            return mVelocityTracker.getYVelocity(mActivePointerId);
+        }
+    }
+
+    /**
+     * @return Minimum velocity to initiate a fling, in pixels per second.
+     */
+    public int getMinimumFlingVelocity() {
+        return mMinimumFlingVelocity;
+    }
+
+    /**
+     * Stop the running settle at its live position, so that the next drag starts from where the view is.
+     *
+     * @return {@code true} if a settle was running.
+     */
+    private boolean catchSettle() {
+        if (mViewOffsetHelper == null) {
+            return false;
+        }
+        mCatchingSettle = true;
+        final boolean caught = mViewOffsetHelper.catchSettle();
+        mCatchingSettle = false;
+        if (!caught) {
+            return false;
+        }
+        mCaughtVelocity = mSwipeOrientation == SwipeOrientation.HORIZONTAL
+                ? mViewOffsetHelper.getCaughtVelocityX() : mViewOffsetHelper.getCaughtVelocityY();
+        return true;
+    }
+
+    /**
+     * Inflate the lazy menu that the drag delta starts to reveal.
+     */
+    private void ensureMenuToward(int deltaX, int deltaY) {
+        final int delta = mSwipeOrientation == SwipeOrientation.HORIZONTAL ? deltaX : deltaY;
+        final int offset = mSwipeOrientation == SwipeOrientation.HORIZONTAL
+                ? mViewOffsetHelper.getLeftAndRightOffset() : mViewOffsetHelper.getTopAndBottomOffset();
+        if (delta > 0 && offset >= 0) {
+            ensureMenu(ItemType.START_MENU);
+        } else if (delta < 0 && offset <= 0) {
+            ensureMenu(ItemType.END_MENU);
+        }
+    }
+
+    /**
+     * Called once per gesture, when the touch crosses the slop.
+     */
+    private void startDrag() {
+        mIsBeingDragged = true;
+        mSettleCaught = false;
+        mSwipeState = SwipeState.DRAGGING;
+        if (mMetricsListener != null) {
+            if (mMetrics != null) {
+                mMetrics.recycle();
+            }
+            mMetrics = SwipeMetrics.obtain();
+            mMetrics.mSlopTimeNanos = SwipeAnimationScheduler.getInstance().getFrameTimeNanos();
+        }
+        if (mSingleOpenPolicy != null) {
+            mSingleOpenPolicy.onSwipeStart(this);
+        }
+        final ViewParent parent = getParent();
+        if (parent != null) {
+            parent.requestDisallowInterceptTouchEvent(true);
+        }
+        if (mHardwareLayerEnabled) {
+            promoteLayers();
+        }
+    }
+
     private int getDistanceBySwipeOrientation(MotionEvent event) {
         int distance = 0;
         switch (mSwipeOrientation) {
@@ -326,6 +1267,16 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
     }
 
     private void offsetSwipeItem(int deltaX, int deltaY) {
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.beginSection(SwipeTrace.SECTION_DRAG_OFFSET);
+            SwipeTrace.countOffset();
+        }
+        if (mMetrics != null && mIsBeingDragged) {
+            if (mMetrics.mDragFrameCount++ == 0) {
+                mMetrics.mSlopToFirstOffsetNanos =
+                        SwipeAnimationScheduler.getInstance().getFrameTimeNanos() - mMetrics.mSlopTimeNanos;
+            }
+        }
         switch (mSwipeOrientation) {
             case SwipeOrientation.HORIZONTAL:
                 offsetSwipeItemHorizontal(deltaX);
@@ -334,71 +1285,52 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
                 offsetSwipeItemVertical(deltaY);
                 break;
         }
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.endSection();
+        }
     }
 
-    private void offsetSwipeItemHorizontal(int deltaX) {
-        if (getSwipeView() != null) {
-            int swipeViewOffset = mViewOffsetHelper.getLeftAndRightOffset();
-            int targetOffset = swipeViewOffset + deltaX;
-            if (targetOffset > 0) {
-                if (getStartMenu() != null && ((LayoutParams) getStartMenu().getLayoutParams()).mMenuEnable) {
-                    if (targetOffset < getStartMenuLength()) {
+    /**
+     * Accumulate the drag delta and apply it on the next animation frame, so that a touch panel
+     * reporting several events per frame costs one offset, one invalidate and one listener dispatch.
+     * <p>The historical samples batched in a move event add up to the same delta as its last sample,
+     * so only the last one is read here.
+     */
+    private void postOffsetSwipeItem(int deltaX, int deltaY) {
+        mPendingDeltaX += deltaX;
+        mPendingDeltaY += deltaY;
+        if (!mPendingOffsetPosted) {
+            mPendingOffsetPosted = true;
+            ViewCompat.postOnAnimation(this, mApplyPendingOffset);
+        }
+    }
 
-                    } else {
-                        //StartMenu end effect
-                        deltaX = 0;
-                    }
-                } else {
-                    //swipe view start edge effect
-                    deltaX = 0;
-                }
-            } else if (targetOffset < 0) {
-                if (getEndMenu() != null && ((LayoutParams) getEndMenu().getLayoutParams()).isMenuEnable()) {
-                    if (-targetOffset < getEndMenuLength()) {
+    /**
+     * Apply the accumulated drag delta immediately.
+     */
+    private void applyPendingOffset() {
+        if (mPendingOffsetPosted) {
+            removeCallbacks(mApplyPendingOffset);
+            mPendingOffsetPosted = false;
+        }
+        final int deltaX = mPendingDeltaX;
+        final int deltaY = mPendingDeltaY;
+        mPendingDeltaX = 0;
+        mPendingDeltaY = 0;
+        if (deltaX != 0 || deltaY != 0) {
+            offsetSwipeItem(deltaX, deltaY);
+        }
+    }
 
-                    } else {
-                        //end menu start edge effect
-                        deltaX = 0;
-                    }
-                } else {
-                    //swipe view end edge effect
-                    deltaX = 0;
-                }
-            }
-            mViewOffsetHelper.offsetLeftAndRight(deltaX);
+    private void offsetSwipeItemHorizontal(int deltaX) {
+        if (mSwipeItem != null) {
+            mViewOffsetHelper.offsetLeftAndRight(mSwipeBounds.clampDelta(mViewOffsetHelper.getLeftAndRightOffset(), deltaX));
         }
     }
 
     private void offsetSwipeItemVertical(int deltaY) {
-        if (getSwipeView() != null) {
-            int swipeViewOffset = mViewOffsetHelper.getTopAndBottomOffset();
-            int targetOffset = swipeViewOffset + deltaY;
-            if (targetOffset > 0) {
-                if (getStartMenu() != null && ((LayoutParams) getStartMenu().getLayoutParams()).mMenuEnable) {
-                    if (targetOffset < getStartMenuLength()) {
-
-                    } else {
-                        //StartMenu end effect
-                        deltaY = 0;
-                    }
-                } else {
-                    //swipe view start edge effect
-                    deltaY = 0;
-                }
-            } else if (targetOffset < 0) {
-                if (getEndMenu() != null && ((LayoutParams) getEndMenu().getLayoutParams()).isMenuEnable()) {
-                    if (-targetOffset < getEndMenuLength()) {
-
-                    } else {
-                        //end menu start edge effect
-                        deltaY = 0;
-                    }
-                } else {
-                    //swipe view end edge effect
-                    deltaY = 0;
-                }
-            }
-            mViewOffsetHelper.offsetTopAndBottom(deltaY);
+        if (mSwipeItem != null) {
+            mViewOffsetHelper.offsetTopAndBottom(mSwipeBounds.clampDelta(mViewOffsetHelper.getTopAndBottomOffset(), deltaY));
         }
     }
 
@@ -413,9 +1345,32 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
     }
 
 
+    /**
+     * Sets whether the drag offsets are applied once per frame.
+     *
+     * @param coalesceOffsets {@code true} accumulate the touch events of a frame and apply them on the
+     *                        next animation frame, otherwise apply every touch event immediately.
+     */
+    public void setCoalesceOffsets(boolean coalesceOffsets) {
+        if (!coalesceOffsets) {
+            applyPendingOffset();
+        }
+        mCoalesceOffsets = coalesceOffsets;
+    }
+
+    /**
+     * @return {@code true} if the drag offsets are applied once per frame.
+     */
+    public boolean isCoalesceOffsets() {
+        return mCoalesceOffsets;
+    }
+
     @Override
     public void setSwipeOrientation(@SwipeOrientation int orientation) {
         mSwipeOrientation = orientation;
+        updateSwipeBounds();
+        // The menus are measured along the swipe orientation.
+        requestLayout();
     }
 
     @SwipeOrientation
@@ -424,6 +1379,28 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
         return mSwipeOrientation;
     }
 
+    /**
+     * Sets how the swipe view is moved, the current offset is kept.
+     *
+     * @param offsetMode the offset mode
+     * @see SwipeOffsetMode
+     */
+    public void setSwipeOffsetMode(@SwipeOffsetMode int offsetMode) {
+        mOffsetMode = offsetMode;
+        if (mViewOffsetHelper != null) {
+            mViewOffsetHelper.setOffsetMode(offsetMode);
+        }
+    }
+
+    /**
+     * @return how the swipe view is moved
+     * @see SwipeOffsetMode
+     */
+    @SwipeOffsetMode
+    public int getSwipeOffsetMode() {
+        return mOffsetMode;
+    }
+
     /**
      * @return The end item that flag set {@link ItemType#SWIPE_VIEW}
      * @see ItemType
@@ -478,11 +1455,7 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
     }
 
     public boolean isStartMenuOpen() {
-        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-            return mViewOffsetHelper.getLeftAndRightOffset() == getStartMenuLength();
-        } else {
-            return mViewOffsetHelper.getTopAndBottomOffset() == getStartMenuLength();
-        }
+        return mSwipeState == SwipeState.OPEN_START;
     }
 
     public boolean isStartMenuClose() {
@@ -490,19 +1463,27 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
     }
 
     private boolean isMenuClosed() {
-        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-            return mViewOffsetHelper.getLeftAndRightOffset() == 0;
-        } else {
-            return mViewOffsetHelper.getTopAndBottomOffset() == 0;
-        }
+        return mSwipeState == SwipeState.IDLE_CLOSED;
+    }
+
+    /**
+     * @return {@code true} if the swipe view is at rest at its layout position, whatever state was told.
+     */
+    private boolean isSwipeViewClosed() {
+        return mViewOffsetHelper == null
+                || (getSwipeOffset() == 0 && mSwipeState != SwipeState.DRAGGING && mViewOffsetHelper.isFinish());
     }
 
     public boolean isEndMenuOpen() {
-        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-            return -mViewOffsetHelper.getLeftAndRightOffset() == getEndMenuLength();
-        } else {
-            return -mViewOffsetHelper.getTopAndBottomOffset() == getEndMenuLength();
-        }
+        return mSwipeState == SwipeState.OPEN_END;
+    }
+
+    /**
+     * @return Where the swipe view is in a swipe.
+     */
+    @SwipeState
+    public int getSwipeState() {
+        return mSwipeState;
     }
 
     public boolean isEndMenuClose() {
@@ -515,26 +1496,24 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
      * @param animate {@code true} open start menu smoothly, otherwise immediately.
      */
     public void openStartMenu(boolean animate) {
-        if (isStartMenuOpen() || isEndMenuOpen()) {
+        final int offset = getSwipeOffset();
+        if (offset < 0 || (offset == mStartMenuLength && offset != 0 && mViewOffsetHelper.isFinish())) {
+            // The end menu is revealed, or the start menu is fully open already.
             return;
         }
-        if (mViewOffsetHelper != null) {
-            if (!mViewOffsetHelper.isFinish()) {
-                mViewOffsetHelper.finish();
-            }
-            if (animate) {
-                if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-                    mViewOffsetHelper.startScroll(mSwipeItem.getLeft(), mSwipeItem.getTop(), getStartMenuLength(), 0);
-                } else {
-                    mViewOffsetHelper.startScroll(mSwipeItem.getLeft(), mSwipeItem.getTop(), 0, getStartMenuLength());
-                }
-            } else {
-                if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-                    mViewOffsetHelper.offsetLeftAndRight(getStartMenuLength());
-                } else {
-                    mViewOffsetHelper.offsetTopAndBottom(getStartMenuLength());
-                }
+        openMenu(ItemType.START_MENU, animate);
+    }
+
+    /**
+     * Finish the running end swipe through the handler, so that the swipe view moves from where it is.
+     */
+    private void finishEndSwipe() {
+        if (mEndSwipeHandler != null) {
+            if (!mEndSwipeHandler.isFinish(mViewOffsetHelper)) {
+                mEndSwipeHandler.finish(mViewOffsetHelper);
             }
+        } else if (!mViewOffsetHelper.isFinish()) {
+            mViewOffsetHelper.finish();
         }
     }
 
@@ -548,19 +1527,24 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
     }
 
     private void closeMenu(boolean animate) {
-        if (isEndMenuClose()) {
+        // An open waiting for the layout is dropped.
+        mHasPendingOpenMenu = false;
+        if (isSwipeViewClosed()) {
             return;
         }
-        if (mViewOffsetHelper != null) {
-            if (!mViewOffsetHelper.isFinish()) {
-                mViewOffsetHelper.finish();
-            }
-            if (animate) {
-                mViewOffsetHelper.startScroll(mSwipeItem.getLeft(), mSwipeItem.getTop(), -mViewOffsetHelper.getLeftAndRightOffset(), -mViewOffsetHelper.getTopAndBottomOffset());
-            } else {
-                mViewOffsetHelper.offsetByLeft(mViewOffsetHelper.getLayoutLeft());
-                mViewOffsetHelper.offsetByTop(mViewOffsetHelper.getLayoutTop());
-            }
+        if (animate && retargetSpring(0)) {
+            return;
+        }
+        finishEndSwipe();
+        if (getSwipeOffset() == 0) {
+            // Stopped where it closes, there is nothing to scroll.
+            recycleMenus();
+        } else if (animate) {
+            mViewOffsetHelper.startScroll(mViewOffsetHelper.getCurrentLeft(), mViewOffsetHelper.getCurrentTop(), -mViewOffsetHelper.getLeftAndRightOffset(), -mViewOffsetHelper.getTopAndBottomOffset());
+        } else {
+            mViewOffsetHelper.offsetByLeft(mViewOffsetHelper.getLayoutLeft());
+            mViewOffsetHelper.offsetByTop(mViewOffsetHelper.getLayoutTop());
+            recycleMenus();
         }
     }
 
@@ -570,27 +1554,77 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
      * @param animate {@code true} open start menu smoothly, otherwise open immediately.
      */
     public void openEndMenu(boolean animate) {
-        if (isEndMenuOpen() || isStartMenuOpen()) {
+        final int offset = getSwipeOffset();
+        if (offset > 0 || (offset == -mEndMenuLength && offset != 0 && mViewOffsetHelper.isFinish())) {
+            // The start menu is revealed, or the end menu is fully open already.
             return;
         }
-        if (mViewOffsetHelper != null) {
-            if (!mViewOffsetHelper.isFinish()) {
-                mViewOffsetHelper.finish();
-            }
-            if (animate) {
-                if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-                    mViewOffsetHelper.startScroll(mSwipeItem.getLeft(), mSwipeItem.getTop(), -getEndMenuLength(), 0);
-                } else {
-                    mViewOffsetHelper.startScroll(mSwipeItem.getLeft(), mSwipeItem.getTop(), 0, -getEndMenuLength());
-                }
-            } else {
-                if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-                    mViewOffsetHelper.offsetByLeft(-getEndMenuLength());
-                } else {
-                    mViewOffsetHelper.offsetByTop(-getEndMenuLength());
-                }
-            }
+        openMenu(ItemType.END_MENU, animate);
+    }
+
+    /**
+     * Open the menu, or wait for the next layout pass if the menu is just inflated and has no size yet.
+     */
+    private void openMenu(@ItemType int menu, boolean animate) {
+        final boolean inflated = ensureMenu(menu);
+        if (mViewOffsetHelper == null) {
+            return;
+        }
+        if (mSingleOpenPolicy != null) {
+            mSingleOpenPolicy.onSwipeStart(this);
+        }
+        final boolean waitLayout = inflated || !ViewCompat.isLaidOut(this) || isLayoutRequested();
+        if (animate && !waitLayout && retargetSpring(getOpenOffset(menu))) {
+            mHasPendingOpenMenu = false;
+            return;
+        }
+        finishEndSwipe();
+        if (waitLayout) {
+            // Opened by the declared length, the menu would jump when it is measured.
+            mPendingOpenMenu = menu;
+            mPendingOpenAnimate = animate;
+            mHasPendingOpenMenu = true;
+            requestLayout();
+            return;
+        }
+        mHasPendingOpenMenu = false;
+        startOpenMenu(menu, animate);
+    }
+
+    /**
+     * Move the swipe view to the menu measured in the last layout pass, from wherever it is.
+     */
+    private void startOpenMenu(@ItemType int menu, boolean animate) {
+        if (!animate) {
+            applyOpenMenu(menu);
+            return;
+        }
+        final int offset = getOpenOffset(menu);
+        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+            mViewOffsetHelper.startScroll(mViewOffsetHelper.getCurrentLeft(), mViewOffsetHelper.getCurrentTop(),
+                    offset - mViewOffsetHelper.getLeftAndRightOffset(), 0);
+        } else {
+            mViewOffsetHelper.startScroll(mViewOffsetHelper.getCurrentLeft(), mViewOffsetHelper.getCurrentTop(),
+                    0, offset - mViewOffsetHelper.getTopAndBottomOffset());
+        }
+    }
+
+    private int getOpenOffset(@ItemType int menu) {
+        return menu == ItemType.START_MENU ? mStartMenuLength : -mEndMenuLength;
+    }
+
+    /**
+     * Send the running spring of the swipe view to the offset, so that it keeps the velocity it has.
+     *
+     * @return {@code false} if the running settle is not a spring, or none is running.
+     */
+    private boolean retargetSpring(int offset) {
+        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+            return mViewOffsetHelper.retargetSpring(mViewOffsetHelper.getLayoutLeft() + offset,
+                    mViewOffsetHelper.getLayoutTop());
         }
+        return mViewOffsetHelper.retargetSpring(mViewOffsetHelper.getLayoutLeft(),
+                mViewOffsetHelper.getLayoutTop() + offset);
     }
 
     /**
@@ -611,6 +1645,43 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
         mStatusChangeListener = statusChangeListener;
     }
 
+    /**
+     * Add a callback to be invoked when swipe view is opened or closed, in addition to the one set by
+     * {@link #setStatusChangeListener(OnSwipeStatusChangeListener)}.
+     *
+     * @param statusChangeListener The callback that will run
+     */
+    public void addOnSwipeStatusChangeListener(OnSwipeStatusChangeListener statusChangeListener) {
+        final OnSwipeStatusChangeListener[] listeners = mStatusChangeListeners;
+        for (OnSwipeStatusChangeListener listener : listeners) {
+            if (listener == statusChangeListener) {
+                return;
+            }
+        }
+        final OnSwipeStatusChangeListener[] newListeners = new OnSwipeStatusChangeListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+        newListeners[listeners.length] = statusChangeListener;
+        mStatusChangeListeners = newListeners;
+    }
+
+    /**
+     * Remove a callback added by {@link #addOnSwipeStatusChangeListener(OnSwipeStatusChangeListener)}.
+     *
+     * @param statusChangeListener The callback to remove
+     */
+    public void removeOnSwipeStatusChangeListener(OnSwipeStatusChangeListener statusChangeListener) {
+        final OnSwipeStatusChangeListener[] listeners = mStatusChangeListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == statusChangeListener) {
+                final OnSwipeStatusChangeListener[] newListeners = new OnSwipeStatusChangeListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                mStatusChangeListeners = newListeners;
+                return;
+            }
+        }
+    }
+
     /**
      * Register a callback to be invoked when swipe view status changed
      *
@@ -620,101 +1691,280 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
         mRangeChangeListener = rangeChangeListener;
     }
 
+    /**
+     * Add a callback to be invoked when swipe view is swiped, in addition to the one set by
+     * {@link #setRangeChangeListener(OnSwipeRangeChangeListener)}. The range is dispatched at most once per frame.
+     *
+     * @param rangeChangeListener The callback that will run
+     */
+    public void addOnSwipeRangeChangeListener(OnSwipeRangeChangeListener rangeChangeListener) {
+        final OnSwipeRangeChangeListener[] listeners = mRangeChangeListeners;
+        for (OnSwipeRangeChangeListener listener : listeners) {
+            if (listener == rangeChangeListener) {
+                return;
+            }
+        }
+        final OnSwipeRangeChangeListener[] newListeners = new OnSwipeRangeChangeListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+        newListeners[listeners.length] = rangeChangeListener;
+        mRangeChangeListeners = newListeners;
+    }
+
+    /**
+     * Remove a callback added by {@link #addOnSwipeRangeChangeListener(OnSwipeRangeChangeListener)}.
+     *
+     * @param rangeChangeListener The callback to remove
+     */
+    public void removeOnSwipeRangeChangeListener(OnSwipeRangeChangeListener rangeChangeListener) {
+        final OnSwipeRangeChangeListener[] listeners = mRangeChangeListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == rangeChangeListener) {
+                final OnSwipeRangeChangeListener[] newListeners = new OnSwipeRangeChangeListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                mRangeChangeListeners = newListeners;
+                return;
+            }
+        }
+    }
+
     @Override
     public void onViewOffset(ViewOffsetHelper viewOffsetHelper, int offset) {
+        if (mHardwareLayerEnabled && mLayerHelper.isActive()) {
+            promoteRevealedMenu();
+        }
+        updateMenuVisibility();
+        updateMenuClip();
         notifyRangeChanged(viewOffsetHelper);
-        notifyStatusChanged(viewOffsetHelper, offset);
+        if (mSwipeState != SwipeState.DRAGGING && mSwipeState != SwipeState.SETTLING) {
+            // Moved by code without animation, it rests where it is moved to.
+            updateRestingState();
+        }
     }
 
-    private void notifyStatusChanged(ViewOffsetHelper viewOffsetHelper, int offset) {
-        if (mStatusChangeListener == null) {
-            return;
+    @Override
+    public void onViewSettleStart(ViewOffsetHelper viewOffsetHelper) {
+        mSwipeState = SwipeState.SETTLING;
+        if (mMetrics != null) {
+            mMetrics.mRequestedSettleDurationMillis = viewOffsetHelper.getSettleDuration();
+            mMetrics.mSettleStartNanos = SwipeAnimationScheduler.getInstance().getFrameTimeNanos();
+            mMetrics.mLastFrameNanos = mMetrics.mSettleStartNanos;
+            mMetrics.mFrameIntervalNanos = getFrameIntervalNanos();
         }
+        if (mHardwareLayerEnabled) {
+            promoteLayers();
+        }
+    }
 
-        final int leftAndRightOffset = viewOffsetHelper.getLeftAndRightOffset();
-        final int topAndBottomOffset = viewOffsetHelper.getTopAndBottomOffset();
+    @Override
+    public void onViewSettleFrame(ViewOffsetHelper viewOffsetHelper, long frameTimeNanos) {
+        if (mMetrics != null) {
+            mMetrics.onSettleFrame(frameTimeNanos);
+        }
+    }
 
-        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-            if (offset > 0) {// touch from left to right
-                if (viewOffsetHelper.getView().getLeft() == viewOffsetHelper.getLayoutLeft()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Close end");
-                    }
-                    mStatusChangeListener.onCloseEnd();
-                }
-                if (leftAndRightOffset == getStartMenuLength()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Open start");
-                    }
-                    mStatusChangeListener.onOpenStart();
-                }
-            } else {// touch from right to left
-                if (viewOffsetHelper.getView().getLeft() == viewOffsetHelper.getLayoutLeft()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Close start");
-                    }
-                    mStatusChangeListener.onCloseStart();
-                }
-                if (-leftAndRightOffset == getEndMenuLength()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Open end");
-                    }
-                    mStatusChangeListener.onOpenEnd();
-                }
-            }
+    @Override
+    public void onViewSettleFinish(ViewOffsetHelper viewOffsetHelper) {
+        if (!mCatchingSettle) {
+            updateRestingState();
+        }
+        if (mMetrics != null) {
+            mMetrics.mSettleCaught = mCatchingSettle;
+            dispatchMetrics();
+        }
+        mLayerHelper.demoteAll();
+        recycleMenus();
+    }
+
+    /**
+     * Sets whether the swipe view and the revealed menu are rendered into hardware layers while they move.
+     * Views that are cheap to draw are never promoted.
+     *
+     * @param hardwareLayerEnabled {@code true} promote the moving views during drag and settle.
+     */
+    public void setHardwareLayerEnabled(boolean hardwareLayerEnabled) {
+        mHardwareLayerEnabled = hardwareLayerEnabled;
+        if (!hardwareLayerEnabled) {
+            mLayerHelper.demoteAll();
+        }
+    }
+
+    /**
+     * @return {@code true} if the moving views are rendered into hardware layers during drag and settle.
+     */
+    public boolean isHardwareLayerEnabled() {
+        return mHardwareLayerEnabled;
+    }
+
+    private void promoteLayers() {
+        mLayerHelper.promote(mSwipeItem);
+        promoteRevealedMenu();
+    }
+
+    private void promoteRevealedMenu() {
+        final int offset = mSwipeOrientation == SwipeOrientation.HORIZONTAL
+                ? mViewOffsetHelper.getLeftAndRightOffset() : mViewOffsetHelper.getTopAndBottomOffset();
+        if (offset > 0) {
+            mLayerHelper.promote(mStartMenu);
+        } else if (offset < 0) {
+            mLayerHelper.promote(mEndMenu);
+        }
+    }
+
+    /**
+     * Work out the resting state from the offset, and tell the status listeners once if it changed.
+     * Only the swipe view at its layout position is closed, a partly revealed menu counts open.
+     */
+    private void updateRestingState() {
+        if (mViewOffsetHelper == null) {
+            return;
+        }
+        final int offset = getSwipeOffset();
+        final int restingState;
+        if (offset > 0) {
+            restingState = SwipeState.OPEN_START;
+        } else if (offset < 0) {
+            restingState = SwipeState.OPEN_END;
         } else {
-            if (offset > 0) {//touch from top to bottom
-                if (viewOffsetHelper.getView().getTop() == viewOffsetHelper.getLayoutTop()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Close end");
-                    }
-                    mStatusChangeListener.onCloseEnd();
-                }
+            restingState = SwipeState.IDLE_CLOSED;
+        }
+        mSwipeState = restingState;
+        final int previousState = mRestingState;
+        if (restingState == previousState) {
+            return;
+        }
+        mRestingState = restingState;
+        if (previousState == SwipeState.OPEN_START) {
+            dispatchStatusChanged(STATUS_CLOSE_START);
+        } else if (previousState == SwipeState.OPEN_END) {
+            dispatchStatusChanged(STATUS_CLOSE_END);
+        }
+        if (restingState == SwipeState.OPEN_START) {
+            dispatchStatusChanged(STATUS_OPEN_START);
+        } else if (restingState == SwipeState.OPEN_END) {
+            dispatchStatusChanged(STATUS_OPEN_END);
+        }
+    }
 
-                if (topAndBottomOffset == getStartMenuLength()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Open start");
-                    }
-                    mStatusChangeListener.onOpenStart();
-                }
+    private void dispatchStatusChanged(int status) {
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.beginSection(SwipeTrace.SECTION_DISPATCH);
+        }
+        if (mStatusChangeListener != null) {
+            dispatchStatusChanged(mStatusChangeListener, status);
+        }
+        final OnSwipeStatusChangeListener[] listeners = mStatusChangeListeners;
+        for (OnSwipeStatusChangeListener listener : listeners) {
+            dispatchStatusChanged(listener, status);
+        }
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.endSection();
+        }
+    }
 
-            } else {// touch from bottom to top
-                if (viewOffsetHelper.getView().getTop() == viewOffsetHelper.getLayoutTop()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Close start");
-                    }
-                    mStatusChangeListener.onCloseStart();
-                }
-                if (-topAndBottomOffset == getEndMenuLength()) {
-                    if (Config.DEBUG) {
-                        Log.d(TAG, "Open end");
-                    }
-                    mStatusChangeListener.onOpenEnd();
-                }
-            }
+    private static void dispatchStatusChanged(OnSwipeStatusChangeListener listener, int status) {
+        switch (status) {
+            case STATUS_OPEN_START:
+                listener.onOpenStart();
+                break;
+            case STATUS_OPEN_END:
+                listener.onOpenEnd();
+                break;
+            case STATUS_CLOSE_START:
+                listener.onCloseStart();
+                break;
+            case STATUS_CLOSE_END:
+                listener.onCloseEnd();
+                break;
+        }
+    }
+
+    /**
+     * Register a callback to be invoked with the metrics of each swipe gesture, such as to watch the jank in the field.
+     * The metrics are not collected without the listener.
+     *
+     * @param metricsListener The callback that will run, null to stop collecting.
+     */
+    public void setSwipeMetricsListener(SwipeMetricsListener metricsListener) {
+        mMetricsListener = metricsListener;
+        if (metricsListener == null && mMetrics != null) {
+            mMetrics.recycle();
+            mMetrics = null;
+        }
+    }
+
+    private void dispatchMetrics() {
+        final SwipeMetrics metrics = mMetrics;
+        if (metrics == null) {
+            return;
+        }
+        mMetrics = null;
+        if (mMetricsListener != null) {
+            mMetricsListener.onSwipeMetrics(this, metrics);
+        }
+        metrics.recycle();
+    }
+
+    /**
+     * @return The frame interval of the display showing this layout, of 60 fps if unknown.
+     */
+    private long getFrameIntervalNanos() {
+        final Display display = ViewCompat.getDisplay(this);
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        if (refreshRate < 1) {
+            refreshRate = 60;
         }
+        return (long) (1000000000L / refreshRate);
     }
 
+    /**
+     * Post the range to the end of frame, so the offsets of both axes and of several events in one frame
+     * reach the listeners once.
+     */
     private void notifyRangeChanged(ViewOffsetHelper viewOffsetHelper) {
-        if (mRangeChangeListener == null) {
+        if (mRangeChangeListener == null && mRangeChangeListeners.length == 0) {
             return;
         }
-        final int leftAndRightOffset = viewOffsetHelper.getLeftAndRightOffset();
-        final int topAndBottomOffset = viewOffsetHelper.getTopAndBottomOffset();
+        if (!mRangeDispatchPosted) {
+            mRangeDispatchPosted = true;
+            SwipeAnimationScheduler.getInstance().postFrameEndCallback(mRangeDispatch);
+        }
+    }
 
-        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-            if (leftAndRightOffset > 0) {
-                mRangeChangeListener.onSwipeRangeChanged(leftAndRightOffset * 1.0f / getStartMenuLength());
-            } else {
-                mRangeChangeListener.onSwipeRangeChanged(leftAndRightOffset * 1.0f / getEndMenuLength());
-            }
-        } else {
-            if (topAndBottomOffset > 0) {
-                mRangeChangeListener.onSwipeRangeChanged(topAndBottomOffset * 1.0f / getStartMenuLength());
-            } else {
-                mRangeChangeListener.onSwipeRangeChanged(topAndBottomOffset * 1.0f / getEndMenuLength());
+    /**
+     * Dispatch the pending range now, such as the layout is detached and no frame will come for it.
+     */
+    private void flushRangeChanged() {
+        if (mRangeDispatchPosted) {
+            mRangeDispatchPosted = false;
+            SwipeAnimationScheduler.getInstance().removeFrameEndCallback(mRangeDispatch);
+            dispatchRangeChanged();
+        }
+    }
 
-            }
+    private void dispatchRangeChanged() {
+        if (mViewOffsetHelper == null) {
+            return;
+        }
+        final int offset = mSwipeOrientation == SwipeOrientation.HORIZONTAL
+                ? mViewOffsetHelper.getLeftAndRightOffset() : mViewOffsetHelper.getTopAndBottomOffset();
+        final float range = SwipeSnap.computeRange(offset, getStartMenuLength(), getEndMenuLength());
+        if (Float.compare(range, mLastRange) == 0) {
+            return;
+        }
+        mLastRange = range;
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.beginSection(SwipeTrace.SECTION_DISPATCH);
+        }
+        if (mRangeChangeListener != null) {
+            mRangeChangeListener.onSwipeRangeChanged(range);
+        }
+        final OnSwipeRangeChangeListener[] listeners = mRangeChangeListeners;
+        for (OnSwipeRangeChangeListener listener : listeners) {
+            listener.onSwipeRangeChanged(range);
+        }
+        if (SwipeTrace.ENABLED) {
+            SwipeTrace.endSection();
         }
     }
 
@@ -724,7 +1974,7 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
      * if swipe orientation is {@link SwipeOrientation#VERTICAL}, length is {@link #getStartMenu()}getHeight().
      */
     public int getStartMenuLength() {
-        return getMenuLength(mStartMenu);
+        return mStartMenuLength;
     }
 
     /**
@@ -733,28 +1983,45 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
      * if swipe orientation is {@link SwipeOrientation#VERTICAL}, length is {@link #getEndMenu()}getHeight().
      */
     public int getEndMenuLength() {
-        return getMenuLength(mEndMenu);
+        return mEndMenuLength;
     }
 
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mViewOffsetHelper != null) {
+            mViewOffsetHelper.resume();
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        if (mEndSwipeHandler != null) {
+        applyPendingOffset();
+        flushRangeChanged();
+        mLayerHelper.demoteAll();
+        recycleVelocityTracker();
+        // Stop the settle of off-screen row, it continues if the row attaches again.
+        if (mViewOffsetHelper != null) {
+            mViewOffsetHelper.pause();
+        }
+        if (mEndSwipeHandler != null && !mEndSwipeHandler.isShareable()) {
+            // A shared handler is still used by the other layouts.
             mEndSwipeHandler.release();
-            mEndSwipeHandler = null;
         }
     }
 
+    /**
+     * @return The length of menu along the swipe orientation, from the size measured by {@link #onMeasure(int, int)}.
+     */
     private int getMenuLength(View menu) {
         int length = 0;
-        if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
-            if (menu != null) {
-                length = menu.getWidth();
-            }
-        } else {
-            if (menu != null) {
-                length = menu.getHeight();
+        if (menu != null && menu.getVisibility() != GONE) {
+            if (mSwipeOrientation == SwipeOrientation.HORIZONTAL) {
+                length = menu.getMeasuredWidth();
+            } else {
+                length = menu.getMeasuredHeight();
             }
         }
         return length;
@@ -765,6 +2032,11 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
         private int mItemType;
         private boolean mMenuEnable;
 
+        /**
+         * The layout the child is added to, told when the item type changes.
+         */
+        SwipeLayout mOwner;
+
         public LayoutParams(Context context, AttributeSet attrs) {
             super(context, attrs);
 
@@ -776,6 +2048,8 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
 
         public LayoutParams(int width, int height) {
             super(width, height);
+            // Enabled by default, as a menu inflated from xml is.
+            mMenuEnable = true;
         }
 
         @RequiresApi(value = Build.VERSION_CODES.KITKAT)
@@ -783,6 +2057,7 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
             super(source);
 
             mItemType = source.mItemType;
+            mMenuEnable = source.mMenuEnable;
         }
 
         public int getItemType() {
@@ -790,7 +2065,13 @@ public class SwipeLayout extends FrameLayout implements SwipeContainer, ViewOffs
         }
 
         public void setItemType(int itemType) {
+            if (mItemType == itemType) {
+                return;
+            }
             mItemType = itemType;
+            if (mOwner != null) {
+                mOwner.onChildItemTypeChanged();
+            }
         }
 
         public boolean isMenuEnable() {
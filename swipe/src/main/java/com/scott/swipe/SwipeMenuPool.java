@@ -0,0 +1,102 @@
+package com.scott.swipe;
+
+import android.support.annotation.LayoutRes;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * Pool of the lazy menus declared by {@code app:startMenuLayout} and {@code app:endMenuLayout},
+ * shared by {@link SwipeLayout}s the way RecyclerView shares a RecycledViewPool.
+ * <p>A layout with a pool takes a menu from the pool when it starts to reveal the menu, and gives it back
+ * when it is closed again, so only the open rows hold a menu view. The menus are kept by layout resource.
+ * The pool must be used on the main thread, by the layouts of one context.
+ *
+ * @see SwipeLayout#setMenuPool(SwipeMenuPool)
+ */
+public class SwipeMenuPool {
+
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    /**
+     * Fill the row-specific content of a menu, called each time a menu is taken from the pool or inflated.
+     */
+    public interface OnBindMenuListener {
+
+        /**
+         * @param swipeLayout the row the menu is attached to
+         * @param menu        the menu view
+         * @param itemType    {@link ItemType#START_MENU} or {@link ItemType#END_MENU}
+         */
+        void onBindMenu(SwipeLayout swipeLayout, View menu, @ItemType int itemType);
+    }
+
+    private final SparseArray<ArrayList<View>> mScrap = new SparseArray<>();
+    private int mMaxRecycledViews = DEFAULT_MAX_RECYCLED_VIEWS;
+    private OnBindMenuListener mOnBindMenuListener;
+
+    public void setOnBindMenuListener(OnBindMenuListener onBindMenuListener) {
+        mOnBindMenuListener = onBindMenuListener;
+    }
+
+    /**
+     * @param max the max number of menus kept for each layout resource, the extra ones are dropped.
+     */
+    public void setMaxRecycledViews(int max) {
+        mMaxRecycledViews = max;
+        for (int i = 0; i < mScrap.size(); i++) {
+            final ArrayList<View> scrap = mScrap.valueAt(i);
+            while (scrap.size() > max) {
+                scrap.remove(scrap.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * @return The number of menus kept for the layout resource.
+     */
+    public int getRecycledViewCount(@LayoutRes int menuLayout) {
+        final ArrayList<View> scrap = mScrap.get(menuLayout);
+        return scrap != null ? scrap.size() : 0;
+    }
+
+    /**
+     * Drop all kept menus.
+     */
+    public void clear() {
+        mScrap.clear();
+    }
+
+    /**
+     * @return A kept menu of the layout resource, or a new one inflated for the parent, bound to the parent.
+     */
+    View acquire(SwipeLayout parent, @LayoutRes int menuLayout, @ItemType int itemType) {
+        final ArrayList<View> scrap = mScrap.get(menuLayout);
+        final View menu;
+        if (scrap != null && !scrap.isEmpty()) {
+            menu = scrap.remove(scrap.size() - 1);
+        } else {
+            menu = LayoutInflater.from(parent.getContext()).inflate(menuLayout, parent, false);
+        }
+        if (mOnBindMenuListener != null) {
+            mOnBindMenuListener.onBindMenu(parent, menu, itemType);
+        }
+        return menu;
+    }
+
+    /**
+     * Keep the menu removed from its row for the next {@link #acquire(SwipeLayout, int, int)}.
+     */
+    void release(@LayoutRes int menuLayout, View menu) {
+        ArrayList<View> scrap = mScrap.get(menuLayout);
+        if (scrap == null) {
+            scrap = new ArrayList<>(mMaxRecycledViews);
+            mScrap.put(menuLayout, scrap);
+        }
+        if (scrap.size() < mMaxRecycledViews && !scrap.contains(menu)) {
+            scrap.add(menu);
+        }
+    }
+}
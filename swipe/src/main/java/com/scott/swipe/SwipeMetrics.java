@@ -0,0 +1,151 @@
+package com.scott.swipe;
+
+/**
+ * How one swipe gesture of {@link SwipeLayout} performed, from the touch crossing the slop to the end of its settle.
+ * <p>The instances are pooled and reused, so collecting the metrics allocates nothing once the pool is warm.
+ * An instance is valid only during {@link SwipeMetricsListener#onSwipeMetrics(SwipeLayout, SwipeMetrics)},
+ * copy the values out to keep them.
+ */
+public final class SwipeMetrics {
+
+    private static final int MAX_POOL_SIZE = 4;
+    private static final SwipeMetrics[] sPool = new SwipeMetrics[MAX_POOL_SIZE];
+    private static int sPoolSize;
+
+    long mSlopToFirstOffsetNanos;
+    int mDragFrameCount;
+    long mRequestedSettleDurationMillis;
+    long mSettleDurationNanos;
+    int mSettleFrameCount;
+    long mMaxSettleFrameGapNanos;
+    int mDroppedFrameCount;
+    boolean mSettleCaught;
+
+    /**
+     * The time of the touch crossing the slop, the settle start and the last settle frame, used while collecting.
+     */
+    long mSlopTimeNanos;
+    long mSettleStartNanos;
+    long mLastFrameNanos;
+    long mFrameIntervalNanos;
+
+    private SwipeMetrics() {
+        reset();
+    }
+
+    /**
+     * @return A metrics from the pool, reset. Must be used on the main thread.
+     */
+    static SwipeMetrics obtain() {
+        if (sPoolSize > 0) {
+            final SwipeMetrics metrics = sPool[--sPoolSize];
+            sPool[sPoolSize] = null;
+            metrics.reset();
+            return metrics;
+        }
+        return new SwipeMetrics();
+    }
+
+    /**
+     * Give the metrics back to the pool, it must not be used afterwards.
+     */
+    void recycle() {
+        if (sPoolSize < MAX_POOL_SIZE) {
+            sPool[sPoolSize++] = this;
+        }
+    }
+
+    private void reset() {
+        mSlopToFirstOffsetNanos = -1;
+        mDragFrameCount = 0;
+        mRequestedSettleDurationMillis = -1;
+        mSettleDurationNanos = 0;
+        mSettleFrameCount = 0;
+        mMaxSettleFrameGapNanos = 0;
+        mDroppedFrameCount = 0;
+        mSettleCaught = false;
+        mSlopTimeNanos = 0;
+        mSettleStartNanos = 0;
+        mLastFrameNanos = 0;
+        mFrameIntervalNanos = 0;
+    }
+
+    /**
+     * @return The time from the touch crossing the slop to the first drag offset applied, in nanoseconds.
+     * -1 if the gesture applied no offset.
+     */
+    public long getSlopToFirstOffsetNanos() {
+        return mSlopToFirstOffsetNanos;
+    }
+
+    /**
+     * @return The number of drag offsets applied, one per frame when the offsets are coalesced.
+     */
+    public int getDragFrameCount() {
+        return mDragFrameCount;
+    }
+
+    /**
+     * @return The duration the settle asked {@link ViewOffsetHelper} for, in milliseconds.
+     * -1 if there was no settle or it was a spring, which has no fixed duration.
+     */
+    public long getRequestedSettleDurationMillis() {
+        return mRequestedSettleDurationMillis;
+    }
+
+    /**
+     * @return The time from the settle start to its last frame, in nanoseconds. 0 if there was no settle.
+     */
+    public long getSettleDurationNanos() {
+        return mSettleDurationNanos;
+    }
+
+    /**
+     * @return The number of frames the settle ran.
+     */
+    public int getSettleFrameCount() {
+        return mSettleFrameCount;
+    }
+
+    /**
+     * @return The longest time between two frames of the settle, in nanoseconds.
+     */
+    public long getMaxSettleFrameGapNanos() {
+        return mMaxSettleFrameGapNanos;
+    }
+
+    /**
+     * @return The number of frames skipped during the settle, judged by the frame times against the refresh rate.
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    /**
+     * @return {@code true} if the settle was caught by the next touch before it finished.
+     */
+    public boolean isSettleCaught() {
+        return mSettleCaught;
+    }
+
+    /**
+     * Count the frame of the settle at the time.
+     */
+    void onSettleFrame(long frameTimeNanos) {
+        if (frameTimeNanos <= mLastFrameNanos) {
+            // The settle started in this frame.
+            return;
+        }
+        final long gap = frameTimeNanos - mLastFrameNanos;
+        mLastFrameNanos = frameTimeNanos;
+        mSettleFrameCount++;
+        mMaxSettleFrameGapNanos = Math.max(mMaxSettleFrameGapNanos, gap);
+        if (mFrameIntervalNanos > 0) {
+            final long frames = (gap + mFrameIntervalNanos / 2) / mFrameIntervalNanos;
+            if (frames > 1) {
+                mDroppedFrameCount += frames - 1;
+            }
+        }
+        mSettleDurationNanos = frameTimeNanos - mSettleStartNanos;
+    }
+}
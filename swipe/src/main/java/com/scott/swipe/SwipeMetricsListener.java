@@ -0,0 +1,15 @@
+package com.scott.swipe;
+
+/**
+ * Interface definition for a callback to be invoked with the metrics of each swipe gesture, once its settle ends.
+ *
+ * @see SwipeLayout#setSwipeMetricsListener(SwipeMetricsListener)
+ */
+public interface SwipeMetricsListener {
+
+    /**
+     * @param swipeLayout the layout swiped
+     * @param metrics     the metrics of the gesture, valid only during the call
+     */
+    void onSwipeMetrics(SwipeLayout swipeLayout, SwipeMetrics metrics);
+}
@@ -0,0 +1,25 @@
+package com.scott.swipe;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * SwipeOffsetMode control how {@link ViewOffsetHelper} moves the {@link ItemType#SWIPE_VIEW}.
+ */
+@IntDef({SwipeOffsetMode.LAYOUT, SwipeOffsetMode.TRANSLATION})
+@Retention(RetentionPolicy.SOURCE)
+public @interface SwipeOffsetMode {
+
+    /**
+     * The flag indicate that the swipe view is moved by offsetting its layout bounds.
+     */
+    int LAYOUT = 0;
+
+    /**
+     * The flag indicate that the swipe view is moved by its translation, the layout bounds keep unchanged
+     * and the move is a render property update without recording the display list again.
+     */
+    int TRANSLATION = 1;
+}
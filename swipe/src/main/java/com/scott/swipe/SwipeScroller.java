@@ -0,0 +1,204 @@
+package com.scott.swipe;
+
+/**
+ * Encapsulates scrolling like {@link android.widget.Scroller#startScroll(int, int, int, int, int)},
+ * but computes the position from the frame time given by the caller instead of reading a clock,
+ * so that all settles running in a frame agree on the time. The class has no Android dependency.
+ */
+final class SwipeScroller {
+
+    private static final long NANOS_PER_MS = 1000000L;
+
+    /**
+     * The initial speed of a decelerate scroll divided by its average speed.
+     */
+    static final float DECELERATE_VELOCITY_FACTOR = 5.0f;
+
+    /**
+     * The interpolation of {@link android.widget.Scroller}'s default viscous fluid interpolator.
+     */
+    private static final float VISCOUS_FLUID_SCALE = 8.0f;
+    private static final float VISCOUS_FLUID_NORMALIZE;
+    private static final float VISCOUS_FLUID_OFFSET;
+
+    static {
+        // must be set to 1.0 (used in viscousFluid())
+        VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+        // account for very small floating-point error
+        VISCOUS_FLUID_OFFSET = 1.0f - VISCOUS_FLUID_NORMALIZE * viscousFluid(1.0f);
+    }
+
+    private int mStartX;
+    private int mStartY;
+    private int mFinalX;
+    private int mFinalY;
+    private int mCurrX;
+    private int mCurrY;
+
+    private long mStartTimeNanos;
+    private long mDurationNanos;
+    private long mElapsedNanos;
+    private boolean mFinished = true;
+
+    /**
+     * The flag of decelerating from the start, so that the scroll continues the velocity of a fling.
+     */
+    private boolean mDecelerate;
+
+    /**
+     * Start scrolling by providing a starting point, the distance to travel, the duration and the start time.
+     *
+     * @param startX         Starting horizontal position in pixels.
+     * @param startY         Starting vertical position in pixels.
+     * @param dx             Horizontal distance to travel.
+     * @param dy             Vertical distance to travel.
+     * @param duration       Duration of the scroll in milliseconds.
+     * @param startTimeNanos The time the scroll starts, in the time base of frame time.
+     */
+    void startScroll(int startX, int startY, int dx, int dy, int duration, long startTimeNanos) {
+        startScroll(startX, startY, dx, dy, duration, startTimeNanos, false);
+    }
+
+    /**
+     * Start scrolling like {@link #startScroll(int, int, int, int, int, long)}.
+     *
+     * @param decelerate {@code true} the scroll starts at {@link #DECELERATE_VELOCITY_FACTOR} times of the average
+     *                   speed and decelerates to the end, otherwise it accelerates and decelerates like
+     *                   {@link android.widget.Scroller}.
+     */
+    void startScroll(int startX, int startY, int dx, int dy, int duration, long startTimeNanos, boolean decelerate) {
+        mFinished = false;
+        mDecelerate = decelerate;
+        mStartX = startX;
+        mStartY = startY;
+        mFinalX = startX + dx;
+        mFinalY = startY + dy;
+        mCurrX = startX;
+        mCurrY = startY;
+        mStartTimeNanos = startTimeNanos;
+        mDurationNanos = Math.max(0, duration) * NANOS_PER_MS;
+        mElapsedNanos = 0;
+    }
+
+    /**
+     * Call this when you want to know the new location at the frame time.
+     *
+     * @param frameTimeNanos the time of current frame.
+     * @return {@code true} if the animation is not yet finished before the call.
+     */
+    boolean computeScrollOffset(long frameTimeNanos) {
+        if (mFinished) {
+            return false;
+        }
+        final long elapsed = Math.max(0, frameTimeNanos - mStartTimeNanos);
+        mElapsedNanos = elapsed;
+        if (elapsed < mDurationNanos) {
+            final float fraction = getFraction(elapsed);
+            mCurrX = mStartX + Math.round(fraction * (mFinalX - mStartX));
+            mCurrY = mStartY + Math.round(fraction * (mFinalY - mStartY));
+        } else {
+            mCurrX = mFinalX;
+            mCurrY = mFinalY;
+            mFinished = true;
+        }
+        return true;
+    }
+
+    int getCurrX() {
+        return mCurrX;
+    }
+
+    int getCurrY() {
+        return mCurrY;
+    }
+
+    int getFinalX() {
+        return mFinalX;
+    }
+
+    int getFinalY() {
+        return mFinalY;
+    }
+
+    /**
+     * @return The horizontal velocity at the last computed position, in pixels per second.
+     */
+    float getCurrVelocityX() {
+        return getFractionVelocity() * (mFinalX - mStartX);
+    }
+
+    /**
+     * @return The vertical velocity at the last computed position, in pixels per second.
+     */
+    float getCurrVelocityY() {
+        return getFractionVelocity() * (mFinalY - mStartY);
+    }
+
+    /**
+     * @return The change rate of the interpolated fraction per second at the last computed position.
+     */
+    private float getFractionVelocity() {
+        if (mFinished || mDurationNanos == 0) {
+            return 0;
+        }
+        final long step = Math.min(NANOS_PER_MS, mDurationNanos - mElapsedNanos);
+        if (step <= 0) {
+            return 0;
+        }
+        final float delta = getFraction(mElapsedNanos + step) - getFraction(mElapsedNanos);
+        return delta * 1000000000f / step;
+    }
+
+    private float getFraction(long elapsedNanos) {
+        final float input = Math.min(1.0f, elapsedNanos * 1.0f / mDurationNanos);
+        return mDecelerate ? decelerate(input) : interpolate(input);
+    }
+
+    /**
+     * @return The duration of current scroll in milliseconds.
+     */
+    int getDuration() {
+        return (int) (mDurationNanos / NANOS_PER_MS);
+    }
+
+    boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * Force the finished field to a particular value, the current position keeps unchanged.
+     *
+     * @param finished The new finished value.
+     */
+    void forceFinished(boolean finished) {
+        mFinished = finished;
+    }
+
+    /**
+     * Quintic ease out, the slope at 0 is {@link #DECELERATE_VELOCITY_FACTOR}.
+     */
+    private static float decelerate(float input) {
+        final float t = input - 1.0f;
+        return t * t * t * t * t + 1.0f;
+    }
+
+    private static float interpolate(float input) {
+        final float interpolated = VISCOUS_FLUID_NORMALIZE * viscousFluid(input);
+        if (interpolated > 0) {
+            return interpolated + VISCOUS_FLUID_OFFSET;
+        }
+        return interpolated;
+    }
+
+    private static float viscousFluid(float x) {
+        x *= VISCOUS_FLUID_SCALE;
+        if (x < 1.0f) {
+            x -= (1.0f - (float) Math.exp(-x));
+        } else {
+            float start = 0.36787944117f;   // 1/e == exp(-1)
+            x = 1.0f - (float) Math.exp(1.0f - x);
+            x = start + x * (1.0f - start);
+        }
+        return x;
+    }
+}
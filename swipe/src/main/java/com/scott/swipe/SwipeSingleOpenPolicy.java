@@ -0,0 +1,130 @@
+package com.scott.swipe;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Keep at most one {@link SwipeLayout} open among the layouts attached to the policy, such as the rows of a list.
+ * <p>The policy remembers the open layout from its {@link OnSwipeStatusChangeListener} transitions,
+ * and closes it when another layout passes the touch slop, is opened by code or is restored open.
+ * So swiping from row to row costs the same however many rows are visible, instead of checking each of them.
+ * The open layout is weakly referenced, so a recycled or detached row is not kept alive by the policy.
+ */
+public class SwipeSingleOpenPolicy {
+
+    private WeakReference<SwipeLayout> mOpenLayout;
+
+    /**
+     * Let the policy manage the layout, safe to call again for a recycled row.
+     *
+     * @param swipeLayout the layout to manage
+     */
+    public void attach(SwipeLayout swipeLayout) {
+        if (swipeLayout.mSingleOpenPolicy == this) {
+            return;
+        }
+        if (swipeLayout.mSingleOpenPolicy != null) {
+            swipeLayout.mSingleOpenPolicy.detach(swipeLayout);
+        }
+        final RowListener listener = new RowListener(swipeLayout);
+        swipeLayout.setTag(R.id.swipe_single_open_policy, listener);
+        swipeLayout.addOnSwipeStatusChangeListener(listener);
+        swipeLayout.mSingleOpenPolicy = this;
+        if (swipeLayout.isStartMenuOpen() || swipeLayout.isEndMenuOpen()) {
+            onOpen(swipeLayout);
+        }
+    }
+
+    /**
+     * Stop managing the layout.
+     *
+     * @param swipeLayout the layout attached by {@link #attach(SwipeLayout)}
+     */
+    public void detach(SwipeLayout swipeLayout) {
+        if (swipeLayout.mSingleOpenPolicy != this) {
+            return;
+        }
+        final RowListener listener = (RowListener) swipeLayout.getTag(R.id.swipe_single_open_policy);
+        if (listener != null) {
+            swipeLayout.removeOnSwipeStatusChangeListener(listener);
+            swipeLayout.setTag(R.id.swipe_single_open_policy, null);
+        }
+        swipeLayout.mSingleOpenPolicy = null;
+        onClose(swipeLayout);
+    }
+
+    /**
+     * @return The open layout, or null if none.
+     */
+    public SwipeLayout getOpenLayout() {
+        return mOpenLayout != null ? mOpenLayout.get() : null;
+    }
+
+    /**
+     * Close the open layout, if any.
+     *
+     * @param animate {@code true} close smoothly, otherwise immediately.
+     */
+    public void closeOpenLayout(boolean animate) {
+        final SwipeLayout openLayout = getOpenLayout();
+        mOpenLayout = null;
+        if (openLayout != null) {
+            openLayout.closeStartView(animate);
+        }
+    }
+
+    /**
+     * Called by {@link SwipeLayout} before it starts to move toward a menu.
+     */
+    void onSwipeStart(SwipeLayout swipeLayout) {
+        final SwipeLayout openLayout = getOpenLayout();
+        if (openLayout != null && openLayout != swipeLayout) {
+            closeOpenLayout(true);
+        }
+    }
+
+    private void onOpen(SwipeLayout swipeLayout) {
+        final SwipeLayout openLayout = getOpenLayout();
+        if (openLayout == swipeLayout) {
+            return;
+        }
+        mOpenLayout = new WeakReference<>(swipeLayout);
+        if (openLayout != null) {
+            // Opened without passing the slop, such as restored or attached open, the other layout still closes.
+            openLayout.closeStartView(true);
+        }
+    }
+
+    private void onClose(SwipeLayout swipeLayout) {
+        if (getOpenLayout() == swipeLayout) {
+            mOpenLayout = null;
+        }
+    }
+
+    private class RowListener implements OnSwipeStatusChangeListener {
+        private final SwipeLayout mSwipeLayout;
+
+        RowListener(SwipeLayout swipeLayout) {
+            mSwipeLayout = swipeLayout;
+        }
+
+        @Override
+        public void onOpenStart() {
+            onOpen(mSwipeLayout);
+        }
+
+        @Override
+        public void onOpenEnd() {
+            onOpen(mSwipeLayout);
+        }
+
+        @Override
+        public void onCloseStart() {
+            onClose(mSwipeLayout);
+        }
+
+        @Override
+        public void onCloseEnd() {
+            onClose(mSwipeLayout);
+        }
+    }
+}
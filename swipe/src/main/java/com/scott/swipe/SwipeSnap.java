@@ -0,0 +1,100 @@
+package com.scott.swipe;
+
+/**
+ * The per-event math of a swipe: where a released swipe view snaps to, and the range reported to the listeners.
+ * <p>The class has no Android dependency, so it is benchmarked on a plain JVM with {@link SwipeBounds}.
+ */
+final class SwipeSnap {
+
+    /**
+     * The status change position is the default fraction of the menu length.
+     */
+    static final int STATUS_DEFAULT = 0;
+
+    /**
+     * The status change position is a fraction of the menu length.
+     */
+    static final int STATUS_FRACTION = 1;
+
+    /**
+     * The status change position is a length in pixels.
+     */
+    static final int STATUS_DIMENSION = 2;
+
+    static final float STATUS_CHANGE_DEFAULT_FRACTION = 0.5f;
+
+    private SwipeSnap() {
+    }
+
+    /**
+     * @param statusType  {@link #STATUS_DEFAULT}, {@link #STATUS_FRACTION} or {@link #STATUS_DIMENSION}
+     * @param statusValue the fraction or the pixels, as the type tells
+     * @param length      the length of opened view along swipe orientation.
+     * @return menu status change position
+     */
+    static int getStatusChangeLength(int statusType, float statusValue, int length) {
+        int statusChangeLength;
+        if (statusType == STATUS_FRACTION) {
+            statusChangeLength = Math.round(length * statusValue);
+        } else if (statusType == STATUS_DIMENSION) {
+            statusChangeLength = Math.round(statusValue);
+        } else {
+            statusChangeLength = Math.round(length * STATUS_CHANGE_DEFAULT_FRACTION);
+        }
+        return statusChangeLength;
+    }
+
+    /**
+     * @param offset      menu opened length
+     * @param length      default value of operated menu length
+     * @param statusType  the type of status change position, see {@link #getStatusChangeLength(int, float, int)}
+     * @param statusValue the value of status change position
+     * @return swipe view auto scroll length.
+     */
+    static int getScrollDistance(int offset, int length, int statusType, float statusValue) {
+        int scrollDistance = -offset;
+        if (offset > 0) {
+            // the start view opened, if opened length great than status change length,auto open ,otherwise auto close
+            int statusChangeDx = getStatusChangeLength(statusType, statusValue, length);
+            if (offset > statusChangeDx) {
+                scrollDistance = length - offset;
+            }
+        } else {
+            //the end view opened, if opened length great than status change length,auto open ,otherwise auto close
+            int statusChangeDx = getStatusChangeLength(statusType, statusValue, length);
+
+            if (-offset > statusChangeDx) {
+                scrollDistance = -length - offset;
+            }
+        }
+        return scrollDistance;
+    }
+
+    /**
+     * A fling opens the menu it moves toward and closes the menu it moves away from, however far the menu opened.
+     *
+     * @param offset   menu opened length
+     * @param length   default value of operated menu length
+     * @param velocity the release velocity
+     * @return swipe view auto scroll length.
+     */
+    static int getFlingDistance(int offset, int length, float velocity) {
+        if (offset > 0) {
+            return velocity > 0 ? length - offset : -offset;
+        } else if (offset < 0) {
+            return velocity < 0 ? -length - offset : -offset;
+        }
+        return 0;
+    }
+
+    /**
+     * @param offset      the offset of swipe view along the swipe orientation
+     * @param startLength the length of start menu
+     * @param endLength   the length of end menu
+     * @return The offset as a fraction of the menu it reveals, in [-1, 1]. 0 if the menu has no length.
+     */
+    static float computeRange(int offset, int startLength, int endLength) {
+        final int length = offset > 0 ? startLength : endLength;
+        return length != 0 ? offset * 1.0f / length : 0;
+    }
+}
@@ -16,119 +16,114 @@ public class SwipeSnapHandler extends EndSwipeHandler {
 
     @SuppressWarnings("UnusedDeclaration")
     public static final String TAG = "SwipeSnapHandler";
-    private static final float STATUS_CHANGE_DEFAULT_FRACTION = 0.5f;
-
-    private ViewOffsetHelper mViewOffsetHelper;
-    private int mStatusType;
-    private float mStatusValue;
+    /**
+     * {@link SwipeSnap#STATUS_DEFAULT}, {@link SwipeSnap#STATUS_FRACTION} or {@link SwipeSnap#STATUS_DIMENSION}.
+     */
+    private final int mStatusType;
+    private final float mStatusValue;
 
     public SwipeSnapHandler(Context context, AttributeSet attrs) {
         super(context, attrs);
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.SwipeLayout);
         TypedValue statusTypeValue = typedArray.peekValue(R.styleable.SwipeLayout_swipeStatusPosition);
+        int statusType = SwipeSnap.STATUS_DEFAULT;
+        float statusValue = 0;
         if (statusTypeValue != null) {
-            mStatusType = statusTypeValue.type;
-            if (mStatusType == TypedValue.TYPE_DIMENSION) {
-                mStatusValue = typedArray.getDimensionPixelOffset(R.styleable.SwipeLayout_swipeStatusPosition, 0);
-            } else if (mStatusType == TypedValue.TYPE_FLOAT) {
-                mStatusValue = typedArray.getFloat(R.styleable.SwipeLayout_swipeStatusPosition, 0f);
+            if (statusTypeValue.type == TypedValue.TYPE_DIMENSION) {
+                statusType = SwipeSnap.STATUS_DIMENSION;
+                statusValue = typedArray.getDimensionPixelOffset(R.styleable.SwipeLayout_swipeStatusPosition, 0);
+            } else if (statusTypeValue.type == TypedValue.TYPE_FLOAT) {
+                statusType = SwipeSnap.STATUS_FRACTION;
+                statusValue = typedArray.getFloat(R.styleable.SwipeLayout_swipeStatusPosition, 0f);
             }
         }
+        mStatusType = statusType;
+        mStatusValue = statusValue;
         typedArray.recycle();
     }
 
     @Override
     public void onEndSwipe(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper) {
-        mViewOffsetHelper = viewOffsetHelper;
+        onEndSwipe(swipeLayout, viewOffsetHelper, 0);
+    }
+
+    @Override
+    public void onEndSwipe(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper, float velocity) {
+        final float flingVelocity = Math.abs(velocity) < swipeLayout.getMinimumFlingVelocity() ? 0 : velocity;
         int scrollDistance;
         switch (swipeLayout.getSwipeOrientation()) {
             case SwipeOrientation.HORIZONTAL:
-                scrollDistance = onEndSwipeHorizontal(swipeLayout, viewOffsetHelper);
-                viewOffsetHelper.startScroll(viewOffsetHelper.getView().getLeft(), viewOffsetHelper.getView().getTop(), scrollDistance, 0);
+                scrollDistance = onEndSwipe(swipeLayout, viewOffsetHelper.getLeftAndRightOffset(), flingVelocity);
+                onSettle(SwipeOrientation.HORIZONTAL, viewOffsetHelper, scrollDistance, 0, velocity, flingVelocity);
                 break;
             case SwipeOrientation.VERTICAL:
-                scrollDistance = onEndSwipeVertical(swipeLayout, viewOffsetHelper);
-                viewOffsetHelper.startScroll(viewOffsetHelper.getView().getLeft(), viewOffsetHelper.getView().getTop(), 0, scrollDistance);
+                scrollDistance = onEndSwipe(swipeLayout, viewOffsetHelper.getTopAndBottomOffset(), flingVelocity);
+                onSettle(SwipeOrientation.VERTICAL, viewOffsetHelper, 0, scrollDistance, velocity, flingVelocity);
                 break;
         }
     }
 
-    private int onEndSwipeHorizontal(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper) {
-        int offset = viewOffsetHelper.getLeftAndRightOffset();
-        int distance;
-        if (offset > 0) {
-            distance = swipeLayout.getStartMenuLength();
-        } else {
-            distance = swipeLayout.getEndMenuLength();
-        }
-        return getScrollDistance(swipeLayout.getContext(), offset, distance);
+    /**
+     * Settle the swipe view to the snapped position. By default, it invokes
+     * {@link ViewOffsetHelper#startSettle(int, int, float)}.
+     *
+     * @param orientation      The {@link SwipeOrientation} of the layout, the axis of the velocity.
+     * @param viewOffsetHelper The {@link ViewOffsetHelper} contains {@link ItemType#SWIPE_VIEW}
+     * @param dx               Horizontal distance to travel.
+     * @param dy               Vertical distance to travel.
+     * @param velocity         The release velocity along the swipe orientation.
+     * @param flingVelocity    The release velocity, 0 if it is too slow to be a fling.
+     */
+    protected void onSettle(@SwipeOrientation int orientation, ViewOffsetHelper viewOffsetHelper,
+                            int dx, int dy, float velocity, float flingVelocity) {
+        viewOffsetHelper.startSettle(dx, dy, flingVelocity);
     }
 
-    private int onEndSwipeVertical(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper) {
-        int offset = viewOffsetHelper.getTopAndBottomOffset();
+    /**
+     * @param offset   the offset of swipe view along the swipe orientation
+     * @param velocity the release velocity, 0 if it is too slow to be a fling
+     * @return swipe view auto scroll length.
+     */
+    private int onEndSwipe(SwipeLayout swipeLayout, int offset, float velocity) {
         int distance;
         if (offset > 0) {
             distance = swipeLayout.getStartMenuLength();
         } else {
             distance = swipeLayout.getEndMenuLength();
-
         }
-        return getScrollDistance(swipeLayout.getContext(), offset, distance);
-    }
-
-    /**
-     * @param offset menu opened length
-     * @param length default value of operated menu length
-     * @return swipe view auto scroll length.
-     */
-    private int getScrollDistance(Context context, int offset, int length) {
-        int scrollDistance = -offset;
-        if (offset > 0) {
-            // the start view opened, if opened length great than status change length,auto open ,otherwise auto close
-            int statusChangeDx = getStatusChangeLength(context, length);
-            if (offset > statusChangeDx) {
-                scrollDistance = length - offset;
-            }
-        } else {
-            //the end view opened, if opened length great than status change length,auto open ,otherwise auto close
-            int statusChangeDx = getStatusChangeLength(context, length);
-
-            if (-offset > statusChangeDx) {
-                scrollDistance = -length - offset;
-            }
+        if (velocity != 0) {
+            return SwipeSnap.getFlingDistance(offset, distance, velocity);
         }
-        return scrollDistance;
+        return SwipeSnap.getScrollDistance(offset, distance, mStatusType, mStatusValue);
     }
 
     /**
-     * @param context provider DisplayMetrics
-     * @param length  the length of opened view along swipe orientation.
-     * @return menu status change position
+     * The handler keeps no per-gesture state, the settle runs in the {@link ViewOffsetHelper} of each layout.
+     * A subclass may keep state of its own, so it is shared only if it says so by overriding this.
      */
-    private int getStatusChangeLength(Context context, int length) {
-        int statusChangeLength;
-        if (mStatusType == TypedValue.TYPE_FLOAT) {
-            statusChangeLength = Math.round(length * mStatusValue);
-        } else if (mStatusType == TypedValue.TYPE_DIMENSION) {
-            statusChangeLength = Math.round(mStatusValue);
-        } else {
-            statusChangeLength = Math.round(length * STATUS_CHANGE_DEFAULT_FRACTION);
-        }
-        return statusChangeLength;
+    @Override
+    public boolean isShareable() {
+        return getClass() == SwipeSnapHandler.class;
     }
 
     @Override
-    public boolean isFinish() {
-        return mViewOffsetHelper == null || mViewOffsetHelper.isFinish();
+    public void release() {
     }
 
     @Override
-    public void finish() {
-        mViewOffsetHelper.finish();
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SwipeSnapHandler that = (SwipeSnapHandler) o;
+        return mStatusType == that.mStatusType && Float.compare(mStatusValue, that.mStatusValue) == 0;
     }
 
     @Override
-    public void release() {
-        mViewOffsetHelper = null;
+    public int hashCode() {
+        return 31 * mStatusType + Float.floatToIntBits(mStatusValue);
     }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.scott.swipe;
+
+/**
+ * A damped spring along one axis, solved in closed form from the time it started,
+ * so that stepping a frame is a few exp and trig calls without integrating error or allocating.
+ * The spring can be retargeted while it runs, it keeps its current position and velocity.
+ * The class has no Android dependency.
+ */
+final class SwipeSpring {
+
+    /**
+     * The default stiffness, same as the medium stiffness of support dynamic animation.
+     */
+    static final float DEFAULT_STIFFNESS = 1500f;
+
+    /**
+     * The default damping ratio, a critically damped spring settles fastest without bounce.
+     */
+    static final float DEFAULT_DAMPING_RATIO = 1f;
+
+    /**
+     * The spring is at rest when it is closer to the target than the value in pixels and slower than the velocity.
+     */
+    private static final double REST_DISPLACEMENT = 0.5;
+    private static final double REST_VELOCITY = 5;
+
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+
+    private double mNaturalFrequency = Math.sqrt(DEFAULT_STIFFNESS);
+    private double mDampingRatio = DEFAULT_DAMPING_RATIO;
+
+    private double mTarget;
+    private double mStartDisplacement;
+    private double mStartVelocity;
+    private long mStartTimeNanos;
+
+    private double mValue;
+    private double mVelocity;
+    private boolean mRunning;
+
+    /**
+     * @param stiffness    the stiffness of spring, the mass is 1.
+     * @param dampingRatio the damping ratio, less than 1 bounces, 1 is critically damped, greater than 1 is overdamped.
+     */
+    void setSpring(float stiffness, float dampingRatio) {
+        mNaturalFrequency = Math.sqrt(Math.max(stiffness, 1f));
+        mDampingRatio = Math.max(dampingRatio, 0f);
+    }
+
+    /**
+     * Start the spring from the value with the velocity toward the target.
+     *
+     * @param value     the start position in pixels.
+     * @param velocity  the start velocity in pixels per second.
+     * @param target    the position to rest.
+     * @param timeNanos the time the spring starts, in the time base of frame time.
+     */
+    void start(float value, float velocity, float target, long timeNanos) {
+        mTarget = target;
+        mStartDisplacement = value - target;
+        mStartVelocity = velocity;
+        mStartTimeNanos = timeNanos;
+        mValue = value;
+        mVelocity = velocity;
+        mRunning = !isAtRest(mStartDisplacement, mStartVelocity);
+        if (!mRunning) {
+            mValue = target;
+            mVelocity = 0;
+        }
+    }
+
+    /**
+     * Move the target of the spring, the current position and velocity are kept.
+     *
+     * @param target    the new position to rest.
+     * @param timeNanos the time now, in the time base of frame time.
+     */
+    void retarget(float target, long timeNanos) {
+        if (mRunning) {
+            update(timeNanos);
+        }
+        start((float) mValue, (float) mVelocity, target, timeNanos);
+    }
+
+    /**
+     * Compute the position and velocity at the frame time.
+     *
+     * @param frameTimeNanos the time of current frame.
+     * @return {@code true} if the spring is not yet at rest before the call.
+     */
+    boolean update(long frameTimeNanos) {
+        if (!mRunning) {
+            return false;
+        }
+        final double t = Math.max(0, frameTimeNanos - mStartTimeNanos) / NANOS_PER_SECOND;
+        final double x0 = mStartDisplacement;
+        final double v0 = mStartVelocity;
+        final double w0 = mNaturalFrequency;
+        final double zeta = mDampingRatio;
+        final double displacement;
+        final double velocity;
+        if (zeta < 1) {
+            // under damped
+            final double a = zeta * w0;
+            final double wd = w0 * Math.sqrt(1 - zeta * zeta);
+            final double b = (v0 + a * x0) / wd;
+            final double decay = Math.exp(-a * t);
+            final double cos = Math.cos(wd * t);
+            final double sin = Math.sin(wd * t);
+            displacement = decay * (x0 * cos + b * sin);
+            velocity = decay * (v0 * cos - (x0 * wd + a * b) * sin);
+        } else if (zeta == 1) {
+            // critically damped
+            final double b = v0 + w0 * x0;
+            final double decay = Math.exp(-w0 * t);
+            displacement = (x0 + b * t) * decay;
+            velocity = (b - w0 * (x0 + b * t)) * decay;
+        } else {
+            // over damped
+            final double root = Math.sqrt(zeta * zeta - 1);
+            final double r1 = -w0 * (zeta - root);
+            final double r2 = -w0 * (zeta + root);
+            final double c1 = (v0 - r2 * x0) / (r1 - r2);
+            final double c2 = x0 - c1;
+            final double e1 = Math.exp(r1 * t);
+            final double e2 = Math.exp(r2 * t);
+            displacement = c1 * e1 + c2 * e2;
+            velocity = c1 * r1 * e1 + c2 * r2 * e2;
+        }
+        if (isAtRest(displacement, velocity)) {
+            mValue = mTarget;
+            mVelocity = 0;
+            mRunning = false;
+        } else {
+            mValue = mTarget + displacement;
+            mVelocity = velocity;
+        }
+        return true;
+    }
+
+    /**
+     * Stop the spring where it is.
+     */
+    void stop() {
+        mRunning = false;
+        mVelocity = 0;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    float getValue() {
+        return (float) mValue;
+    }
+
+    /**
+     * @return The velocity in pixels per second.
+     */
+    float getVelocity() {
+        return (float) mVelocity;
+    }
+
+    float getTarget() {
+        return (float) mTarget;
+    }
+
+    private static boolean isAtRest(double displacement, double velocity) {
+        return Math.abs(displacement) < REST_DISPLACEMENT && Math.abs(velocity) < REST_VELOCITY;
+    }
+}
@@ -0,0 +1,74 @@
+package com.scott.swipe;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+
+/**
+ * A {@link SwipeSnapHandler} that settles the swipe view with a damped spring instead of a fixed duration scroll.
+ * The spring starts with the release velocity along the swipe orientation. A spring caught by the touch
+ * goes on with the velocity it had if the touch lifts without dragging.
+ * <p>The stiffness and damping ratio are read from {@code app:swipeSpringStiffness} and
+ * {@code app:swipeSpringDampingRatio} of the {@link SwipeLayout}.
+ */
+public class SwipeSpringHandler extends SwipeSnapHandler {
+
+    @SuppressWarnings("UnusedDeclaration")
+    public static final String TAG = "SwipeSpringHandler";
+
+    private final float mStiffness;
+    private final float mDampingRatio;
+
+    public SwipeSpringHandler(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.SwipeLayout);
+        mStiffness = typedArray.getFloat(R.styleable.SwipeLayout_swipeSpringStiffness, SwipeSpring.DEFAULT_STIFFNESS);
+        mDampingRatio = typedArray.getFloat(R.styleable.SwipeLayout_swipeSpringDampingRatio, SwipeSpring.DEFAULT_DAMPING_RATIO);
+        typedArray.recycle();
+    }
+
+    @Override
+    protected void onSettle(@SwipeOrientation int orientation, ViewOffsetHelper viewOffsetHelper,
+                            int dx, int dy, float velocity, float flingVelocity) {
+        // Even with no distance to travel, such as released at an edge, the velocity moves along the swipe orientation.
+        if (orientation == SwipeOrientation.HORIZONTAL) {
+            viewOffsetHelper.startSpring(dx, dy, velocity, 0, mStiffness, mDampingRatio);
+        } else {
+            viewOffsetHelper.startSpring(dx, dy, 0, velocity, mStiffness, mDampingRatio);
+        }
+    }
+
+    /**
+     * The spring runs in the {@link ViewOffsetHelper} of each layout too, so this class is shared as well.
+     */
+    @Override
+    public boolean isShareable() {
+        return getClass() == SwipeSpringHandler.class;
+    }
+
+    public float getStiffness() {
+        return mStiffness;
+    }
+
+    public float getDampingRatio() {
+        return mDampingRatio;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+        final SwipeSpringHandler that = (SwipeSpringHandler) o;
+        return Float.compare(mStiffness, that.mStiffness) == 0
+                && Float.compare(mDampingRatio, that.mDampingRatio) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + Float.floatToIntBits(mStiffness);
+        result = 31 * result + Float.floatToIntBits(mDampingRatio);
+        return result;
+    }
+}
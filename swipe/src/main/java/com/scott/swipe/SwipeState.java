@@ -0,0 +1,41 @@
+package com.scott.swipe;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * SwipeState is where the {@link ItemType#SWIPE_VIEW} of a {@link SwipeLayout} is in a swipe.
+ * {@link #IDLE_CLOSED}, {@link #OPEN_START} and {@link #OPEN_END} are the resting states, the
+ * {@link OnSwipeStatusChangeListener} is told once each time the resting state changes.
+ */
+@IntDef({SwipeState.IDLE_CLOSED, SwipeState.DRAGGING, SwipeState.SETTLING, SwipeState.OPEN_START, SwipeState.OPEN_END})
+@Retention(RetentionPolicy.SOURCE)
+public @interface SwipeState {
+
+    /**
+     * The flag indicate that the swipe view rests at its layout position, both menus are closed.
+     */
+    int IDLE_CLOSED = 0;
+
+    /**
+     * The flag indicate that the swipe view is following the finger.
+     */
+    int DRAGGING = 1;
+
+    /**
+     * The flag indicate that the swipe view is moving to where it rests.
+     */
+    int SETTLING = 2;
+
+    /**
+     * The flag indicate that the swipe view rests with the start menu open.
+     */
+    int OPEN_START = 3;
+
+    /**
+     * The flag indicate that the swipe view rests with the end menu open.
+     */
+    int OPEN_END = 4;
+}
@@ -0,0 +1,107 @@
+package com.scott.swipe;
+
+import android.support.v4.util.LongSparseArray;
+
+/**
+ * Keep the open state of {@link SwipeLayout} rows in a list across recycling, keyed by the stable ID of each row.
+ * <p>Call {@link #bind(SwipeLayout, long)} from {@code onBindViewHolder}: the row records its state changes
+ * under the ID, and the state left behind for the ID is restored immediately, without animation and
+ * without an extra layout pass. Only the open rows are kept, so the memory stays flat however long the list is.
+ */
+public class SwipeStateCoordinator {
+
+    private static final Integer STATE_START_OPEN = ItemType.START_MENU;
+    private static final Integer STATE_END_OPEN = ItemType.END_MENU;
+
+    /**
+     * The open menu of each row by stable ID, the closed rows are absent.
+     */
+    private final LongSparseArray<Integer> mOpenMenus = new LongSparseArray<>();
+
+    /**
+     * Bind the row to the stable ID, and restore the state recorded for the ID.
+     *
+     * @param swipeLayout the row
+     * @param stableId    the stable ID of the item the row shows
+     */
+    public void bind(SwipeLayout swipeLayout, long stableId) {
+        RowBinding binding = (RowBinding) swipeLayout.getTag(R.id.swipe_state_coordinator);
+        if (binding == null) {
+            binding = new RowBinding();
+            swipeLayout.setTag(R.id.swipe_state_coordinator, binding);
+            swipeLayout.addOnSwipeStatusChangeListener(binding);
+        }
+        binding.mStableId = stableId;
+        final Integer openMenu = mOpenMenus.get(stableId);
+        swipeLayout.restoreOpenMenu(openMenu != null ? openMenu : ItemType.NONE_ITEM);
+    }
+
+    /**
+     * Stop recording the state of the row, such as the row is removed from the list.
+     *
+     * @param swipeLayout the row bound by {@link #bind(SwipeLayout, long)}
+     */
+    public void unbind(SwipeLayout swipeLayout) {
+        final RowBinding binding = (RowBinding) swipeLayout.getTag(R.id.swipe_state_coordinator);
+        if (binding != null) {
+            swipeLayout.removeOnSwipeStatusChangeListener(binding);
+            swipeLayout.setTag(R.id.swipe_state_coordinator, null);
+        }
+    }
+
+    /**
+     * @param stableId the stable ID of the item
+     * @return {@link ItemType#START_MENU} or {@link ItemType#END_MENU} if the row of the item is open,
+     * otherwise {@link ItemType#NONE_ITEM}.
+     */
+    @ItemType
+    public int getOpenMenu(long stableId) {
+        final Integer openMenu = mOpenMenus.get(stableId);
+        return openMenu != null ? openMenu : ItemType.NONE_ITEM;
+    }
+
+    /**
+     * Forget the state of the item, such as the item is removed from the data set.
+     */
+    public void remove(long stableId) {
+        mOpenMenus.remove(stableId);
+    }
+
+    /**
+     * Forget the states of all items, the bound rows keep where they are.
+     */
+    public void clear() {
+        mOpenMenus.clear();
+    }
+
+    /**
+     * @return The number of open rows recorded.
+     */
+    public int getOpenCount() {
+        return mOpenMenus.size();
+    }
+
+    private class RowBinding implements OnSwipeStatusChangeListener {
+        private long mStableId;
+
+        @Override
+        public void onOpenStart() {
+            mOpenMenus.put(mStableId, STATE_START_OPEN);
+        }
+
+        @Override
+        public void onOpenEnd() {
+            mOpenMenus.put(mStableId, STATE_END_OPEN);
+        }
+
+        @Override
+        public void onCloseStart() {
+            mOpenMenus.remove(mStableId);
+        }
+
+        @Override
+        public void onCloseEnd() {
+            mOpenMenus.remove(mStableId);
+        }
+    }
+}
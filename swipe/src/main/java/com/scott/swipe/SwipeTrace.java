@@ -0,0 +1,87 @@
+package com.scott.swipe;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Tracing of the gesture and settle work of {@link SwipeLayout}, compiled out unless the library is built
+ * with {@code -PswipeTrace=true}.
+ * <p>When enabled, the work is wrapped in {@link Trace} sections, shown in systrace or Perfetto next to
+ * the sections of the app, and cheap counters are kept. The call sites check {@link #ENABLED}, a constant,
+ * so a build without tracing keeps neither the calls nor the counting.
+ * <p>The counters are updated and read on the main thread.
+ */
+public final class SwipeTrace {
+
+    /**
+     * Whether the library is built with tracing.
+     */
+    public static final boolean ENABLED = BuildConfig.SWIPE_TRACE;
+
+    static final String SECTION_INTERCEPT = "SwipeLayout#intercept";
+    static final String SECTION_TOUCH = "SwipeLayout#touch";
+    static final String SECTION_DRAG_OFFSET = "SwipeLayout#dragOffset";
+    static final String SECTION_SETTLE_FRAME = "SwipeLayout#settleFrame";
+    static final String SECTION_DISPATCH = "SwipeLayout#dispatch";
+
+    private static long sEventCount;
+    private static long sOffsetCount;
+    private static long sSettleFrameCount;
+
+    private SwipeTrace() {
+    }
+
+    static void beginSection(String sectionName) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    static void countEvent() {
+        sEventCount++;
+    }
+
+    static void countOffset() {
+        sOffsetCount++;
+    }
+
+    static void countSettleFrame() {
+        sSettleFrameCount++;
+    }
+
+    /**
+     * @return The number of touch events processed by the layouts, always 0 if not {@link #ENABLED}.
+     */
+    public static long getEventCount() {
+        return sEventCount;
+    }
+
+    /**
+     * @return The number of drag offsets applied to the swipe views, always 0 if not {@link #ENABLED}.
+     */
+    public static long getOffsetCount() {
+        return sOffsetCount;
+    }
+
+    /**
+     * @return The number of frames the settles ran, always 0 if not {@link #ENABLED}.
+     */
+    public static long getSettleFrameCount() {
+        return sSettleFrameCount;
+    }
+
+    /**
+     * Reset the counters, such as before a scenario is measured.
+     */
+    public static void resetCounters() {
+        sEventCount = 0;
+        sOffsetCount = 0;
+        sSettleFrameCount = 0;
+    }
+}
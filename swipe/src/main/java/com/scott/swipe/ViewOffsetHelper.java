@@ -2,12 +2,13 @@ package com.scott.swipe;
 
 import android.support.v4.view.ViewCompat;
 import android.view.View;
-import android.widget.Scroller;
 
 /**
  * Utility helper for moving a {@link android.view.View} around using
  * {@link android.view.View#offsetLeftAndRight(int)} and
- * {@link android.view.View#offsetTopAndBottom(int)}.
+ * {@link android.view.View#offsetTopAndBottom(int)}, or
+ * {@link android.view.View#setTranslationX(float)} and
+ * {@link android.view.View#setTranslationY(float)} in {@link SwipeOffsetMode#TRANSLATION}.
  */
 class ViewOffsetHelper {
 
@@ -16,6 +17,12 @@ class ViewOffsetHelper {
      */
     private static final int DEFAULT_DURATION = 250;
 
+    /**
+     * The bounds of the duration derived from a release velocity
+     */
+    private static final int MIN_SETTLE_DURATION = 80;
+    private static final int MAX_SETTLE_DURATION = 400;
+
     private final View mView;
 
     /**
@@ -28,15 +35,24 @@ class ViewOffsetHelper {
      */
     private int mLayoutLeft;
 
-    private SwipeRunnable mSwipeRunnable;
-    private Scroller mScroller;
+    @SwipeOffsetMode
+    private int mOffsetMode = SwipeOffsetMode.LAYOUT;
+
+    private final SettleCallback mSettleCallback = new SettleCallback();
+    private final SwipeScroller mScroller = new SwipeScroller();
+    private final SwipeSpring mSpringX = new SwipeSpring();
+    private final SwipeSpring mSpringY = new SwipeSpring();
+
+    /**
+     * The velocity of the settle that stopped by {@link #catchSettle()}.
+     */
+    private float mCaughtVelocityX;
+    private float mCaughtVelocityY;
     private OnViewOffsetListener mOnViewOffsetListener;
 
     public ViewOffsetHelper(View view) {
         mView = view;
         resetData();
-        mScroller = new Scroller(view.getContext());
-        mSwipeRunnable = new SwipeRunnable(this);
     }
 
 
@@ -45,6 +61,26 @@ class ViewOffsetHelper {
         mLayoutLeft = mView.getLeft();
     }
 
+    /**
+     * Called by the parent right after it laid the view out. The layout position is refreshed, and in
+     * {@link SwipeOffsetMode#LAYOUT} the offset the view had before the layout is applied again, without
+     * telling the listener since the offset did not change. The translation survives the layout by itself.
+     *
+     * @param leftAndRightOffset the {@link #getLeftAndRightOffset()} before the layout.
+     * @param topAndBottomOffset the {@link #getTopAndBottomOffset()} before the layout.
+     */
+    public void onViewLayout(int leftAndRightOffset, int topAndBottomOffset) {
+        resetData();
+        if (mOffsetMode == SwipeOffsetMode.LAYOUT) {
+            if (leftAndRightOffset != 0) {
+                ViewCompat.offsetLeftAndRight(mView, leftAndRightOffset);
+            }
+            if (topAndBottomOffset != 0) {
+                ViewCompat.offsetTopAndBottom(mView, topAndBottomOffset);
+            }
+        }
+    }
+
     /**
      * Set the top and bottom offset for this {@link ViewOffsetHelper}'s view.
      *
@@ -52,7 +88,11 @@ class ViewOffsetHelper {
      */
     public void offsetTopAndBottom(int offset) {
         if (offset != 0) {
-            ViewCompat.offsetTopAndBottom(mView, offset);
+            if (mOffsetMode == SwipeOffsetMode.TRANSLATION) {
+                mView.setTranslationY(mView.getTranslationY() + offset);
+            } else {
+                ViewCompat.offsetTopAndBottom(mView, offset);
+            }
             if (mOnViewOffsetListener != null) {
                 mOnViewOffsetListener.onViewOffset(this, offset);
             }
@@ -66,7 +106,11 @@ class ViewOffsetHelper {
      */
     public void offsetLeftAndRight(final int offset) {
         if (offset != 0) {
-            ViewCompat.offsetLeftAndRight(mView, offset);
+            if (mOffsetMode == SwipeOffsetMode.TRANSLATION) {
+                mView.setTranslationX(mView.getTranslationX() + offset);
+            } else {
+                ViewCompat.offsetLeftAndRight(mView, offset);
+            }
             if (mOnViewOffsetListener != null) {
                 mOnViewOffsetListener.onViewOffset(this, offset);
             }
@@ -79,7 +123,7 @@ class ViewOffsetHelper {
      * @param top the target position of top.
      */
     public void offsetByTop(int top) {
-        int offset = top - mView.getTop();
+        int offset = top - getCurrentTop();
         if (offset != 0) {
             offsetTopAndBottom(offset);
         }
@@ -91,7 +135,7 @@ class ViewOffsetHelper {
      * @param left the target position of left
      */
     public void offsetByLeft(int left) {
-        int offset = left - mView.getLeft();
+        int offset = left - getCurrentLeft();
         if (offset != 0) {
             offsetLeftAndRight(offset);
         }
@@ -102,6 +146,9 @@ class ViewOffsetHelper {
      */
 
     public int getTopAndBottomOffset() {
+        if (mOffsetMode == SwipeOffsetMode.TRANSLATION) {
+            return (int) mView.getTranslationY();
+        }
         return mView.getTop() - mLayoutTop;
     }
 
@@ -109,9 +156,64 @@ class ViewOffsetHelper {
      * @return The total value of horizontal offset
      */
     public int getLeftAndRightOffset() {
+        if (mOffsetMode == SwipeOffsetMode.TRANSLATION) {
+            return (int) mView.getTranslationX();
+        }
         return mView.getLeft() - mLayoutLeft;
     }
 
+    /**
+     * @return The current top of holding view, including the offset in both {@link SwipeOffsetMode}.
+     */
+    public int getCurrentTop() {
+        return mLayoutTop + getTopAndBottomOffset();
+    }
+
+    /**
+     * @return The current left of holding view, including the offset in both {@link SwipeOffsetMode}.
+     */
+    public int getCurrentLeft() {
+        return mLayoutLeft + getLeftAndRightOffset();
+    }
+
+    /**
+     * Sets how the holding view is moved. The current offset is kept when the mode changes.
+     *
+     * @param offsetMode the offset mode
+     * @see SwipeOffsetMode
+     */
+    public void setOffsetMode(@SwipeOffsetMode int offsetMode) {
+        if (mOffsetMode == offsetMode) {
+            return;
+        }
+        final int leftAndRightOffset = getLeftAndRightOffset();
+        final int topAndBottomOffset = getTopAndBottomOffset();
+        if (mOffsetMode == SwipeOffsetMode.TRANSLATION) {
+            mView.setTranslationX(0);
+            mView.setTranslationY(0);
+        } else {
+            ViewCompat.offsetLeftAndRight(mView, -leftAndRightOffset);
+            ViewCompat.offsetTopAndBottom(mView, -topAndBottomOffset);
+        }
+        mOffsetMode = offsetMode;
+        if (offsetMode == SwipeOffsetMode.TRANSLATION) {
+            mView.setTranslationX(leftAndRightOffset);
+            mView.setTranslationY(topAndBottomOffset);
+        } else {
+            ViewCompat.offsetLeftAndRight(mView, leftAndRightOffset);
+            ViewCompat.offsetTopAndBottom(mView, topAndBottomOffset);
+        }
+    }
+
+    /**
+     * @return how the holding view is moved.
+     * @see SwipeOffsetMode
+     */
+    @SwipeOffsetMode
+    public int getOffsetMode() {
+        return mOffsetMode;
+    }
+
     public View getView() {
         return mView;
     }
@@ -133,7 +235,7 @@ class ViewOffsetHelper {
     /**
      * Start scrolling by providing a starting point and the distance to travel.
      * The scroll will use the default value of 250 milliseconds for the
-     * duration.The method invoke {@link Scroller#startScroll(int, int, int, int, int)}
+     * duration. The scroll is driven by {@link SwipeAnimationScheduler}.
      *
      * @param startX Starting horizontal scroll offset in pixels. Positive
      *               numbers will scroll the content to the left.
@@ -150,7 +252,7 @@ class ViewOffsetHelper {
 
     /**
      * Start scrolling by providing a starting point, the distance to travel,
-     * and the duration of the scroll.The method invoke {@link Scroller#startScroll(int, int, int, int, int)}
+     * and the duration of the scroll. The scroll is driven by {@link SwipeAnimationScheduler}.
      *
      * @param startX   Starting horizontal scroll offset in pixels. Positive
      *                 numbers will scroll the content to the left.
@@ -163,29 +265,217 @@ class ViewOffsetHelper {
      * @param duration Duration of the scroll in milliseconds.
      */
     public void startScroll(int startX, int startY, int dx, int dy, int duration) {
-        mScroller.startScroll(startX, startY, dx, dy, duration);
-        if (mScroller.computeScrollOffset()) {
-            ViewCompat.postOnAnimation(mView, mSwipeRunnable);
+        startScroll(startX, startY, dx, dy, duration, false);
+    }
+
+    private void startScroll(int startX, int startY, int dx, int dy, int duration, boolean decelerate) {
+        stopSpring();
+        final SwipeAnimationScheduler scheduler = SwipeAnimationScheduler.getInstance();
+        mScroller.startScroll(startX, startY, dx, dy, duration, scheduler.getFrameTimeNanos(), decelerate);
+        if (mOnViewOffsetListener != null) {
+            mOnViewOffsetListener.onViewSettleStart(this);
+        }
+        if (duration > 0) {
+            scheduler.addCallback(mSettleCallback);
+        } else {
+            mScroller.computeScrollOffset(scheduler.getFrameTimeNanos());
+            offsetByLeft(mScroller.getCurrX());
+            offsetByTop(mScroller.getCurrY());
+            onSwipeFinished();
+        }
+    }
+
+    /**
+     * Settle the view from where it is by the distance, continuing the release velocity of the finger.
+     * The duration is derived from the velocity, the scroll starts at the velocity and decelerates to the end.
+     * If the velocity is 0 or leads away from the target, the scroll uses the default duration.
+     *
+     * @param dx       Horizontal distance to travel.
+     * @param dy       Vertical distance to travel.
+     * @param velocity The velocity along the travel, in pixels per second.
+     */
+    public void startSettle(int dx, int dy, float velocity) {
+        final int distance = dx != 0 ? dx : dy;
+        if (distance == 0 || velocity == 0 || (distance > 0) != (velocity > 0)) {
+            startScroll(getCurrentLeft(), getCurrentTop(), dx, dy);
+            return;
+        }
+        startScroll(getCurrentLeft(), getCurrentTop(), dx, dy, computeSettleDuration(distance, velocity), true);
+    }
+
+    /**
+     * Settle the view from where it is by the distance with a damped spring that starts with the velocity.
+     * A spring caught by {@link #catchSettle()} goes on by passing its {@link #getCaughtVelocityX()} and
+     * {@link #getCaughtVelocityY()} here.
+     *
+     * @param dx           Horizontal distance to travel.
+     * @param dy           Vertical distance to travel.
+     * @param velocityX    Horizontal velocity to start, in pixels per second.
+     * @param velocityY    Vertical velocity to start, in pixels per second.
+     * @param stiffness    The stiffness of spring.
+     * @param dampingRatio The damping ratio of spring.
+     */
+    public void startSpring(int dx, int dy, float velocityX, float velocityY, float stiffness, float dampingRatio) {
+        final SwipeAnimationScheduler scheduler = SwipeAnimationScheduler.getInstance();
+        final long timeNanos = scheduler.getFrameTimeNanos();
+        final int left = getCurrentLeft();
+        final int top = getCurrentTop();
+        mScroller.forceFinished(true);
+        final boolean springRunning = mSpringX.isRunning() || mSpringY.isRunning();
+        mSpringX.setSpring(stiffness, dampingRatio);
+        mSpringY.setSpring(stiffness, dampingRatio);
+        mSpringX.start(left, velocityX, left + dx, timeNanos);
+        mSpringY.start(top, velocityY, top + dy, timeNanos);
+        if (!springRunning && mOnViewOffsetListener != null) {
+            mOnViewOffsetListener.onViewSettleStart(this);
+        }
+        if (mSpringX.isRunning() || mSpringY.isRunning()) {
+            scheduler.addCallback(mSettleCallback);
         } else {
+            offsetByLeft(left + dx);
+            offsetByTop(top + dy);
             onSwipeFinished();
         }
     }
 
+    /**
+     * Move the target of the running spring, the view goes on from where it is with the velocity it has,
+     * instead of stopping and starting again from rest. The settle is not reported started again.
+     *
+     * @param left The left of the view to rest at.
+     * @param top  The top of the view to rest at.
+     * @return {@code false} if no spring is running, nothing is changed then.
+     */
+    public boolean retargetSpring(int left, int top) {
+        if (!mSpringX.isRunning() && !mSpringY.isRunning()) {
+            return false;
+        }
+        final long timeNanos = SwipeAnimationScheduler.getInstance().getFrameTimeNanos();
+        mSpringX.retarget(left, timeNanos);
+        mSpringY.retarget(top, timeNanos);
+        if (!mSpringX.isRunning() && !mSpringY.isRunning()) {
+            // Already resting at the new target.
+            stop();
+            offsetByLeft(left);
+            offsetByTop(top);
+            onSwipeFinished();
+        }
+        return true;
+    }
+
+    private void stopSpring() {
+        mSpringX.stop();
+        mSpringY.stop();
+    }
+
+    /**
+     * @return The duration in milliseconds that a decelerate scroll starting at the velocity travels the distance.
+     */
+    static int computeSettleDuration(int distance, float velocity) {
+        final int duration = Math.round(1000 * SwipeScroller.DECELERATE_VELOCITY_FACTOR * Math.abs(distance) / Math.abs(velocity));
+        return Math.max(MIN_SETTLE_DURATION, Math.min(MAX_SETTLE_DURATION, duration));
+    }
+
     /**
      * Returns whether the viewOffsetHelper has finished scrolling.
      *
      * @return True if the viewOffsetHelper has finished scrolling, false otherwise.
      */
     public boolean isFinish() {
-        return mScroller != null && mScroller.isFinished();
+        return mScroller.isFinished() && !mSpringX.isRunning() && !mSpringY.isRunning();
     }
 
     /**
-     * Finish the scrolling
+     * Finish the scrolling where the view is, paused or not, and report the settle finished to the listener.
      */
     public void finish() {
-        if (mScroller != null) {
-            mScroller.forceFinished(true);
+        if (isFinish()) {
+            return;
+        }
+        stop();
+        onSwipeFinished();
+    }
+
+    private void stop() {
+        mScroller.forceFinished(true);
+        stopSpring();
+        SwipeAnimationScheduler.getInstance().removeCallback(mSettleCallback);
+    }
+
+    /**
+     * Catch the running settle: the view is moved to where the settle is at the time now, which may be ahead
+     * of the last drawn frame, then the settle stops. The velocity it had is kept in
+     * {@link #getCaughtVelocityX()} and {@link #getCaughtVelocityY()}, so the next settle can continue it.
+     *
+     * @return {@code true} if a settle was running.
+     */
+    public boolean catchSettle() {
+        mCaughtVelocityX = 0;
+        mCaughtVelocityY = 0;
+        if (isFinish()) {
+            return false;
+        }
+        final long timeNanos = SwipeAnimationScheduler.getInstance().getFrameTimeNanos();
+        final int left;
+        final int top;
+        if (mSpringX.isRunning() || mSpringY.isRunning()) {
+            mSpringX.update(timeNanos);
+            mSpringY.update(timeNanos);
+            left = Math.round(mSpringX.getValue());
+            top = Math.round(mSpringY.getValue());
+            mCaughtVelocityX = mSpringX.getVelocity();
+            mCaughtVelocityY = mSpringY.getVelocity();
+        } else {
+            mScroller.computeScrollOffset(timeNanos);
+            left = mScroller.getCurrX();
+            top = mScroller.getCurrY();
+            mCaughtVelocityX = mScroller.getCurrVelocityX();
+            mCaughtVelocityY = mScroller.getCurrVelocityY();
+        }
+        stop();
+        offsetByLeft(left);
+        offsetByTop(top);
+        onSwipeFinished();
+        return true;
+    }
+
+    /**
+     * @return The horizontal velocity of the settle stopped by the last {@link #catchSettle()}, in pixels per second.
+     */
+    public float getCaughtVelocityX() {
+        return mCaughtVelocityX;
+    }
+
+    /**
+     * @return The vertical velocity of the settle stopped by the last {@link #catchSettle()}, in pixels per second.
+     */
+    public float getCaughtVelocityY() {
+        return mCaughtVelocityY;
+    }
+
+    /**
+     * @return The duration of the running scroll in milliseconds, -1 if a spring is running, which has no fixed duration.
+     */
+    public int getSettleDuration() {
+        if (mSpringX.isRunning() || mSpringY.isRunning()) {
+            return -1;
+        }
+        return mScroller.getDuration();
+    }
+
+    /**
+     * Stop driving the scrolling without finishing it, such as the view is detached from window.
+     */
+    public void pause() {
+        SwipeAnimationScheduler.getInstance().removeCallback(mSettleCallback);
+    }
+
+    /**
+     * Continue the scrolling that paused by {@link #pause()}.
+     */
+    public void resume() {
+        if (!isFinish()) {
+            SwipeAnimationScheduler.getInstance().addCallback(mSettleCallback);
         }
     }
 
@@ -194,31 +484,70 @@ class ViewOffsetHelper {
     }
 
     private void onSwipeFinished() {
+        if (mOnViewOffsetListener != null) {
+            mOnViewOffsetListener.onViewSettleFinish(this);
+        }
     }
 
-    private class SwipeRunnable implements Runnable {
-        private ViewOffsetHelper mViewOffsetHelper;
+    private class SettleCallback implements SwipeAnimationScheduler.AnimationCallback {
 
-        SwipeRunnable(ViewOffsetHelper viewOffsetHelper) {
-            mViewOffsetHelper = viewOffsetHelper;
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            if (SwipeTrace.ENABLED) {
+                SwipeTrace.beginSection(SwipeTrace.SECTION_SETTLE_FRAME);
+                SwipeTrace.countSettleFrame();
+            }
+            try {
+                return settleFrame(frameTimeNanos);
+            } finally {
+                if (SwipeTrace.ENABLED) {
+                    SwipeTrace.endSection();
+                }
+            }
         }
 
-        @Override
-        public void run() {
-            if (mViewOffsetHelper != null && mViewOffsetHelper.getView() != null && mScroller != null) {
-                if (mScroller.computeScrollOffset()) {
-                    mViewOffsetHelper.offsetByLeft(mScroller.getCurrX());
-                    mViewOffsetHelper.offsetByTop(mScroller.getCurrY());
-                    // Post ourselves so that we run on the next animation
-                    ViewCompat.postOnAnimation(mViewOffsetHelper.getView(), this);
-                } else {
-                    onSwipeFinished();
+        private boolean settleFrame(long frameTimeNanos) {
+            if (mOnViewOffsetListener != null) {
+                mOnViewOffsetListener.onViewSettleFrame(ViewOffsetHelper.this, frameTimeNanos);
+            }
+            if (mSpringX.isRunning() || mSpringY.isRunning()) {
+                mSpringX.update(frameTimeNanos);
+                mSpringY.update(frameTimeNanos);
+                offsetByLeft(Math.round(mSpringX.getValue()));
+                offsetByTop(Math.round(mSpringY.getValue()));
+                if (mSpringX.isRunning() || mSpringY.isRunning()) {
+                    return true;
                 }
+                onSwipeFinished();
+                return false;
             }
+            if (mScroller.computeScrollOffset(frameTimeNanos)) {
+                offsetByLeft(mScroller.getCurrX());
+                offsetByTop(mScroller.getCurrY());
+                // Keep running so that we run on the next frame
+                return true;
+            }
+            onSwipeFinished();
+            return false;
         }
     }
 
     interface OnViewOffsetListener {
         void onViewOffset(ViewOffsetHelper viewOffsetHelper, int offset);
+
+        /**
+         * Called when the helper starts scrolling the view.
+         */
+        void onViewSettleStart(ViewOffsetHelper viewOffsetHelper);
+
+        /**
+         * Called on every frame of the scrolling, even the frames that leave the view where it is.
+         */
+        void onViewSettleFrame(ViewOffsetHelper viewOffsetHelper, long frameTimeNanos);
+
+        /**
+         * Called when the scrolling started by the helper is finished.
+         */
+        void onViewSettleFinish(ViewOffsetHelper viewOffsetHelper);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.scott.swipe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local unit tests for {@link SwipeBounds}.
+ */
+public class SwipeBoundsTest {
+
+    private SwipeBounds mSwipeBounds;
+
+    @Before
+    public void setUp() {
+        mSwipeBounds = new SwipeBounds();
+        mSwipeBounds.set(200, 150);
+    }
+
+    @Test
+    public void testClampDelta() {
+        assertEquals(50, mSwipeBounds.clampDelta(0, 50));
+        assertEquals(50, mSwipeBounds.clampDelta(150, 80));
+        assertEquals(-150, mSwipeBounds.clampDelta(0, -300));
+        assertEquals(-160, mSwipeBounds.clampDelta(10, -300));
+        assertEquals(0, mSwipeBounds.clampDelta(200, 1));
+    }
+
+    @Test
+    public void testDisabledMenu() {
+        mSwipeBounds.set(0, 150);
+        assertEquals(0, mSwipeBounds.getMaxOffset());
+        assertEquals(-150, mSwipeBounds.getMinOffset());
+        assertEquals(0, mSwipeBounds.clampDelta(0, 10));
+    }
+}
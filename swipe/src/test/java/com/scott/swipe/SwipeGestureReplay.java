@@ -0,0 +1,160 @@
+package com.scott.swipe;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a recorded gesture into a {@link SwipeLayout}, one touch event per frame of a {@link VirtualFrameSource},
+ * and records the offsets the swipe view takes on every frame of the settle that follows.
+ */
+class SwipeGestureReplay {
+
+    /**
+     * Bounds the settle, a settle that does not end by then is reported by the tests as a failure.
+     */
+    private static final int MAX_SETTLE_FRAMES = 300;
+
+    private final SwipeLayout mSwipeLayout;
+    private final VirtualFrameSource mFrameSource;
+    private final List<Integer> mSettleOffsets = new ArrayList<>();
+
+    private long mDownTime;
+    private long mObtainedMoveCount;
+
+    SwipeGestureReplay(SwipeLayout swipeLayout, VirtualFrameSource frameSource) {
+        mSwipeLayout = swipeLayout;
+        mFrameSource = frameSource;
+    }
+
+    /**
+     * @return A horizontal row with a start menu, an end menu and a swipe view over them, not laid out yet.
+     */
+    static SwipeLayout createSwipeLayout(Context context, int startLength, int endLength) {
+        final SwipeLayout swipeLayout = new SwipeLayout(context);
+        swipeLayout.addView(createView(context, ItemType.START_MENU, startLength, Gravity.START));
+        swipeLayout.addView(createView(context, ItemType.END_MENU, endLength, Gravity.END));
+        swipeLayout.addView(createView(context, ItemType.SWIPE_VIEW, ViewGroup.LayoutParams.MATCH_PARENT, Gravity.START));
+        return swipeLayout;
+    }
+
+    static View createView(Context context, @ItemType int itemType, int width, int gravity) {
+        final View view = new View(context);
+        final SwipeLayout.LayoutParams layoutParams =
+                new SwipeLayout.LayoutParams(width, ViewGroup.LayoutParams.MATCH_PARENT);
+        layoutParams.setItemType(itemType);
+        layoutParams.gravity = gravity;
+        view.setLayoutParams(layoutParams);
+        return view;
+    }
+
+    /**
+     * Measure and lay the view out at the exact size, as a parent would.
+     */
+    static void layout(View view, int width, int height) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+    }
+
+    /**
+     * Press at {@code xs[0]}, move through the rest of the positions one frame apart and lift the finger.
+     *
+     * @param cancel {@code true} to end the gesture with {@link MotionEvent#ACTION_CANCEL}, which releases
+     *               without velocity, otherwise with {@link MotionEvent#ACTION_UP}.
+     */
+    void swipe(float y, boolean cancel, float... xs) {
+        down(xs[0], y);
+        for (int i = 1; i < xs.length; i++) {
+            mFrameSource.advanceFrame();
+            move(xs[i], y);
+        }
+        mFrameSource.advanceFrame();
+        dispatch(cancel ? MotionEvent.ACTION_CANCEL : MotionEvent.ACTION_UP, xs[xs.length - 1], y);
+    }
+
+    void down(float x, float y) {
+        mDownTime = mFrameSource.uptimeMillis();
+        dispatch(MotionEvent.ACTION_DOWN, x, y);
+    }
+
+    void move(float x, float y) {
+        dispatch(MotionEvent.ACTION_MOVE, x, y);
+    }
+
+    void cancel(float x, float y) {
+        dispatch(MotionEvent.ACTION_CANCEL, x, y);
+    }
+
+    /**
+     * Step the frames until the scheduler has nothing left to run.
+     *
+     * @return The offsets of the swipe view after every frame, along the swipe orientation.
+     */
+    List<Integer> settle() {
+        mSettleOffsets.clear();
+        while (mFrameSource.isFramePosted() && mSettleOffsets.size() < MAX_SETTLE_FRAMES) {
+            mFrameSource.advanceFrame();
+            mSettleOffsets.add(getOffset());
+        }
+        return mSettleOffsets;
+    }
+
+    /**
+     * @return The offset of the swipe view along the swipe orientation, the swipe view is laid out at 0.
+     */
+    int getOffset() {
+        final View swipeView = mSwipeLayout.getSwipeView();
+        return mSwipeLayout.getSwipeOrientation() == SwipeOrientation.HORIZONTAL
+                ? swipeView.getLeft() : swipeView.getTop();
+    }
+
+    /**
+     * Obtain the events of a drag ahead, so that only dispatching them is measured. The drag moves one pixel
+     * per event toward the end by {@code span} pixels, then back, over and over, so every event moves the view.
+     */
+    MotionEvent[] obtainMoves(float y, float fromX, int span, int count) {
+        final MotionEvent[] events = new MotionEvent[count];
+        for (int i = 0; i < count; i++) {
+            final int step = i % (2 * span);
+            final int distance = step < span ? step : 2 * span - step;
+            // One millisecond apart, after the moves obtained before.
+            events[i] = MotionEvent.obtain(mDownTime, mDownTime + ++mObtainedMoveCount, MotionEvent.ACTION_MOVE,
+                    fromX - distance, y, 0);
+        }
+        return events;
+    }
+
+    /**
+     * The events go straight to {@link SwipeLayout#onInterceptTouchEvent(MotionEvent)} and
+     * {@link SwipeLayout#onTouchEvent(MotionEvent)}, so that only the swipe path is measured
+     * and not the dispatch of the framework.
+     *
+     * @return The bytes the current thread allocates while the layout handles all the events.
+     */
+    long allocatedBytes(MotionEvent[] events) {
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (MotionEvent event : events) {
+            if (mSwipeLayout.onInterceptTouchEvent(event)) {
+                mSwipeLayout.onTouchEvent(event);
+            }
+        }
+        final long after = threadMXBean.getThreadAllocatedBytes(threadId);
+        return after - before;
+    }
+
+    private void dispatch(int action, float x, float y) {
+        final MotionEvent event = MotionEvent.obtain(mDownTime, mFrameSource.uptimeMillis(), action, x, y, 0);
+        mSwipeLayout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
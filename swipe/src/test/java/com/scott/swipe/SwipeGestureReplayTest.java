@@ -0,0 +1,382 @@
+package com.scott.swipe;
+
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays recorded gestures into a {@link SwipeLayout} and steps the settles with a virtual frame clock,
+ * so that the final state, the callbacks and the offsets of every frame are the same on every run.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SwipeGestureReplayTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 100;
+    private static final int START_LENGTH = 200;
+    private static final int END_LENGTH = 150;
+    private static final float Y = HEIGHT / 2;
+
+    private static final int DRAG_EVENT_COUNT = 500;
+
+    private SwipeAnimationScheduler mScheduler;
+    private SwipeAnimationScheduler.FrameSource mDefaultFrameSource;
+    private VirtualFrameSource mFrameSource;
+    private SwipeLayout mSwipeLayout;
+    private SwipeGestureReplay mReplay;
+    private CountingListener mListener;
+    private int mReportCount;
+    private int mReportedSettleFrameCount;
+    private int mReportedDroppedFrameCount;
+
+    @Before
+    public void setUp() {
+        mScheduler = SwipeAnimationScheduler.getInstance();
+        mDefaultFrameSource = mScheduler.getFrameSource();
+        mFrameSource = new VirtualFrameSource(mScheduler);
+        mScheduler.setFrameSource(mFrameSource);
+
+        mSwipeLayout = SwipeGestureReplay.createSwipeLayout(RuntimeEnvironment.application, START_LENGTH, END_LENGTH);
+        SwipeGestureReplay.layout(mSwipeLayout, WIDTH, HEIGHT);
+        mListener = new CountingListener(mFrameSource);
+        mSwipeLayout.addOnSwipeStatusChangeListener(mListener);
+        mSwipeLayout.addOnSwipeRangeChangeListener(mListener);
+        mReplay = new SwipeGestureReplay(mSwipeLayout, mFrameSource);
+    }
+
+    @After
+    public void tearDown() {
+        // The scheduler is process-wide, the next tests must not see the virtual clock or the callbacks left here.
+        mScheduler.reset();
+        mScheduler.setFrameSource(mDefaultFrameSource);
+    }
+
+    @Test
+    public void testSlowDragPastHalfOpensStartMenu() {
+        mReplay.swipe(Y, true, 10, 30, 50, 70, 90, 110, 130, 150, 170);
+        final List<Integer> offsets = mReplay.settle();
+
+        assertTrue(offsets.size() > 1);
+        assertNonDecreasing(offsets);
+        assertEquals(START_LENGTH, (int) offsets.get(offsets.size() - 1));
+        assertEquals(SwipeState.OPEN_START, mSwipeLayout.getSwipeState());
+        assertEquals(1, mListener.mOpenStartCount);
+        assertEquals(0, mListener.mOpenEndCount + mListener.mCloseStartCount + mListener.mCloseEndCount);
+    }
+
+    @Test
+    public void testShortDragSnapsBackClosed() {
+        mReplay.swipe(Y, true, 300, 280, 260, 240);
+        assertTrue(mReplay.getOffset() < 0);
+        final List<Integer> offsets = mReplay.settle();
+
+        assertNonDecreasing(offsets);
+        assertTrue(offsets.get(0) >= -END_LENGTH);
+        assertEquals(0, mReplay.getOffset());
+        assertEquals(SwipeState.IDLE_CLOSED, mSwipeLayout.getSwipeState());
+        assertEquals(0, mListener.mOpenStartCount + mListener.mOpenEndCount);
+        assertEquals(0, mListener.mCloseStartCount + mListener.mCloseEndCount);
+    }
+
+    @Test
+    public void testFlingOpensEndMenu() {
+        // 100 pixels per frame is well past the minimum fling velocity.
+        mReplay.swipe(Y, false, 400, 300, 200);
+        final List<Integer> offsets = mReplay.settle();
+
+        for (int offset : offsets) {
+            assertTrue(offset >= -END_LENGTH && offset <= 0);
+        }
+        assertEquals(-END_LENGTH, mReplay.getOffset());
+        assertEquals(SwipeState.OPEN_END, mSwipeLayout.getSwipeState());
+        assertEquals(1, mListener.mOpenEndCount);
+    }
+
+    @Test
+    public void testRangeDispatchedOncePerFrame() {
+        mReplay.swipe(Y, true, 10, 40, 70, 100, 130, 160);
+        mReplay.settle();
+
+        final List<Long> frameTimes = mListener.mRangeFrameTimes;
+        assertFalse(frameTimes.isEmpty());
+        for (int i = 1; i < frameTimes.size(); i++) {
+            assertTrue(frameTimes.get(i) > frameTimes.get(i - 1));
+        }
+        assertEquals(1f, mListener.mLastRange, 0);
+    }
+
+    @Test
+    public void testCatchSettleAndContinue() {
+        mSwipeLayout.openEndMenu(true);
+        mFrameSource.advanceFrame();
+        mFrameSource.advanceFrame();
+        final int caughtOffset = mReplay.getOffset();
+        assertTrue(caughtOffset < 0 && caughtOffset > -END_LENGTH);
+
+        final DisallowRecordingParent parent = new DisallowRecordingParent();
+        parent.addView(mSwipeLayout);
+        mReplay.down(WIDTH / 2, Y);
+        mFrameSource.advanceFrame();
+        // Caught but not dragged, the parent may still take the gesture.
+        assertEquals(SwipeState.SETTLING, mSwipeLayout.getSwipeState());
+        assertFalse(parent.mDisallowIntercept);
+        assertEquals(caughtOffset, mReplay.getOffset());
+
+        // Released without a move, the settle goes on with the velocity it had.
+        mReplay.cancel(WIDTH / 2, Y);
+        mReplay.settle();
+        assertEquals(-END_LENGTH, mReplay.getOffset());
+        assertEquals(SwipeState.OPEN_END, mSwipeLayout.getSwipeState());
+        assertEquals(1, mListener.mOpenEndCount);
+    }
+
+    @Test
+    public void testSettleMetricsCountEveryFrame() {
+        mSwipeLayout.setSwipeMetricsListener(new SwipeMetricsListener() {
+            @Override
+            public void onSwipeMetrics(SwipeLayout swipeLayout, SwipeMetrics metrics) {
+                // The metrics are recycled after the call, keep the numbers only.
+                mReportCount++;
+                mReportedSettleFrameCount = metrics.getSettleFrameCount();
+                mReportedDroppedFrameCount = metrics.getDroppedFrameCount();
+            }
+        });
+        mReplay.swipe(Y, false, 400, 360, 320);
+        final int settleFrameCount = mReplay.settle().size();
+
+        // The virtual clock never skips a frame, and the frames at the end that do not move are counted too.
+        assertEquals(1, mReportCount);
+        assertTrue(settleFrameCount > 1);
+        assertEquals(settleFrameCount, mReportedSettleFrameCount);
+        assertEquals(0, mReportedDroppedFrameCount);
+        assertEquals(SwipeState.OPEN_END, mSwipeLayout.getSwipeState());
+    }
+
+    @Test
+    public void testRestoreWhileDetachedMidSettle() {
+        mSwipeLayout.openEndMenu(true);
+        mFrameSource.advanceFrame();
+        mFrameSource.advanceFrame();
+        assertEquals(SwipeState.SETTLING, mSwipeLayout.getSwipeState());
+
+        // Scrolled off screen and rebound to an item open at the start, then back on screen.
+        mSwipeLayout.onDetachedFromWindow();
+        mSwipeLayout.restoreOpenMenu(ItemType.START_MENU);
+        mSwipeLayout.onAttachedToWindow();
+        assertEquals(START_LENGTH, mReplay.getOffset());
+        assertEquals(SwipeState.OPEN_START, mSwipeLayout.getSwipeState());
+
+        mReplay.settle();
+        assertEquals(START_LENGTH, mReplay.getOffset());
+        assertEquals(SwipeState.OPEN_START, mSwipeLayout.getSwipeState());
+    }
+
+    @Test
+    public void testPartlyOpenRowIsOpenUntilClosed() {
+        mSwipeLayout.setEndSwipeHandler(new StayHandler());
+        mReplay.swipe(Y, true, 100, 160, 180);
+        final int offset = mReplay.getOffset();
+        assertTrue(offset > 0 && offset < START_LENGTH);
+        assertEquals(SwipeState.OPEN_START, mSwipeLayout.getSwipeState());
+        assertEquals(1, mListener.mOpenStartCount);
+
+        mSwipeLayout.closeStartView(false);
+        assertEquals(0, mReplay.getOffset());
+        assertEquals(SwipeState.IDLE_CLOSED, mSwipeLayout.getSwipeState());
+        assertEquals(1, mListener.mCloseStartCount);
+
+        mReplay.swipe(Y, true, 100, 160, 180);
+        mSwipeLayout.openStartMenu(false);
+        assertEquals(START_LENGTH, mReplay.getOffset());
+        assertEquals(2, mListener.mOpenStartCount);
+    }
+
+    @Test
+    public void testCatchSettleDragsOnlyPastSlop() {
+        mSwipeLayout.openEndMenu(true);
+        mFrameSource.advanceFrame();
+        mFrameSource.advanceFrame();
+        final int caughtOffset = mReplay.getOffset();
+
+        final DisallowRecordingParent parent = new DisallowRecordingParent();
+        parent.addView(mSwipeLayout);
+        mReplay.down(WIDTH / 2, Y);
+        mReplay.move(WIDTH / 2, Y + 60);
+        assertFalse(parent.mDisallowIntercept);
+        assertEquals(caughtOffset, mReplay.getOffset());
+
+        mReplay.move(WIDTH / 2 - 60, Y + 60);
+        assertEquals(SwipeState.DRAGGING, mSwipeLayout.getSwipeState());
+        assertTrue(parent.mDisallowIntercept);
+    }
+
+    @Test
+    public void testDragIsAllocationFree() {
+        // Cross the slop first, so that every event measured moves the swipe view.
+        mReplay.down(WIDTH / 2, Y);
+        mReplay.move(WIDTH / 2 - 20, Y);
+        final MotionEvent[] warmUp = mReplay.obtainMoves(Y, WIDTH / 2 - 20, 100, DRAG_EVENT_COUNT);
+        final MotionEvent[] moves = mReplay.obtainMoves(Y, WIDTH / 2 - 20, 100, DRAG_EVENT_COUNT);
+        // Warm up, so class loading and the first compilation are not counted.
+        mReplay.allocatedBytes(warmUp);
+
+        final int offsetBefore = mReplay.getOffset();
+        final long bytes = mReplay.allocatedBytes(moves);
+        assertEquals("drag allocates " + bytes + " bytes", 0, bytes);
+        assertTrue(offsetBefore < 0);
+        assertEquals(SwipeState.DRAGGING, mSwipeLayout.getSwipeState());
+
+        mReplay.cancel(WIDTH / 2 - 20, Y);
+        mReplay.settle();
+    }
+
+    @Test
+    public void testSpringReleasedAtEdgeStaysOnSwipeAxis() {
+        mSwipeLayout.setEndSwipeHandler(new SwipeSpringHandler(RuntimeEnvironment.application, null));
+        mSwipeLayout.openStartMenu(false);
+
+        // The drag is clamped at the edge, so the fling has no distance to travel but keeps its velocity.
+        mReplay.swipe(Y, false, 100, 160, 220, 280);
+        final View swipeView = mSwipeLayout.getSwipeView();
+        int frames = 0;
+        while (mFrameSource.isFramePosted() && frames++ < 300) {
+            mFrameSource.advanceFrame();
+            assertEquals(0, swipeView.getTop());
+        }
+        assertEquals(START_LENGTH, mReplay.getOffset());
+        assertEquals(SwipeState.OPEN_START, mSwipeLayout.getSwipeState());
+    }
+
+    @Test
+    public void testCaughtSpringContinuesWithItsVelocity() {
+        mSwipeLayout.setEndSwipeHandler(new SwipeSpringHandler(RuntimeEnvironment.application, null));
+        // Flung before the end menu is fully revealed, so the spring has a distance to travel.
+        mReplay.swipe(Y, false, 400, 360, 320);
+        assertTrue(mReplay.getOffset() > -END_LENGTH);
+        mFrameSource.advanceFrame();
+        final int caughtOffset = mReplay.getOffset();
+        assertTrue(caughtOffset > -END_LENGTH);
+
+        mReplay.down(WIDTH / 2, Y);
+        assertEquals(caughtOffset, mReplay.getOffset());
+        mReplay.cancel(WIDTH / 2, Y);
+        mFrameSource.advanceFrame();
+        // Released without a drag, the spring goes on toward the end menu instead of starting from rest.
+        assertTrue(mReplay.getOffset() < caughtOffset);
+
+        mReplay.settle();
+        assertEquals(-END_LENGTH, mReplay.getOffset());
+        assertEquals(SwipeState.OPEN_END, mSwipeLayout.getSwipeState());
+    }
+
+    @Test
+    public void testCloseRetargetsRunningSpring() {
+        mSwipeLayout.setEndSwipeHandler(new SwipeSpringHandler(RuntimeEnvironment.application, null));
+        mReplay.swipe(Y, false, 400, 360, 320);
+        final int releasedOffset = mReplay.getOffset();
+        assertTrue(releasedOffset < 0 && releasedOffset > -END_LENGTH);
+
+        mSwipeLayout.closeEndView(true);
+        mFrameSource.advanceFrame();
+        // The spring keeps the fling velocity toward the end menu before it turns back, a restart from rest
+        // would move toward closed at once.
+        assertTrue(mReplay.getOffset() <= releasedOffset);
+
+        mReplay.settle();
+        assertEquals(0, mReplay.getOffset());
+        assertEquals(SwipeState.IDLE_CLOSED, mSwipeLayout.getSwipeState());
+    }
+
+    /**
+     * Leaves the swipe view where the finger lifts.
+     */
+    private static class StayHandler extends EndSwipeHandler {
+
+        @Override
+        public void onEndSwipe(SwipeLayout swipeLayout, ViewOffsetHelper viewOffsetHelper) {
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+
+    /**
+     * Records whether a child asked not to intercept, which keeps the parent from scrolling.
+     */
+    private static class DisallowRecordingParent extends FrameLayout {
+        private boolean mDisallowIntercept;
+
+        DisallowRecordingParent() {
+            super(RuntimeEnvironment.application);
+        }
+
+        @Override
+        public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+            mDisallowIntercept |= disallowIntercept;
+            super.requestDisallowInterceptTouchEvent(disallowIntercept);
+        }
+    }
+
+    private static void assertNonDecreasing(List<Integer> offsets) {
+        for (int i = 1; i < offsets.size(); i++) {
+            assertTrue("offsets " + offsets, offsets.get(i) >= offsets.get(i - 1));
+        }
+    }
+
+    private static final class CountingListener implements OnSwipeStatusChangeListener, OnSwipeRangeChangeListener {
+        private final VirtualFrameSource mFrameSource;
+        private final List<Long> mRangeFrameTimes = new ArrayList<>();
+        private float mLastRange;
+        private int mOpenStartCount;
+        private int mOpenEndCount;
+        private int mCloseStartCount;
+        private int mCloseEndCount;
+
+        CountingListener(VirtualFrameSource frameSource) {
+            mFrameSource = frameSource;
+        }
+
+        @Override
+        public void onOpenStart() {
+            mOpenStartCount++;
+        }
+
+        @Override
+        public void onOpenEnd() {
+            mOpenEndCount++;
+        }
+
+        @Override
+        public void onCloseStart() {
+            mCloseStartCount++;
+        }
+
+        @Override
+        public void onCloseEnd() {
+            mCloseEndCount++;
+        }
+
+        @Override
+        public void onSwipeRangeChanged(float range) {
+            mRangeFrameTimes.add(mFrameSource.nanoTime());
+            mLastRange = range;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.scott.swipe;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local tests for {@link SwipeLayout} built from code.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SwipeLayoutTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 100;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+    }
+
+    @Test
+    public void testLoadFromCode() {
+        final SwipeLayout swipeLayout = new SwipeLayout(mContext);
+        final View startMenu = SwipeGestureReplay.createView(mContext, ItemType.START_MENU, 200, Gravity.START);
+        final View endMenu = SwipeGestureReplay.createView(mContext, ItemType.END_MENU, 150, Gravity.END);
+        final View swipeView = SwipeGestureReplay.createView(mContext, ItemType.SWIPE_VIEW,
+                ViewGroup.LayoutParams.MATCH_PARENT, Gravity.START);
+        swipeLayout.addView(startMenu);
+        swipeLayout.addView(endMenu);
+        swipeLayout.addView(swipeView);
+
+        assertSame(swipeView, swipeLayout.getSwipeView());
+        assertSame(startMenu, swipeLayout.getStartMenu());
+        assertSame(endMenu, swipeLayout.getEndMenu());
+        assertFalse(swipeLayout.isStartMenuOpen());
+    }
+
+    @Test
+    public void testChangeItemType() {
+        final SwipeLayout swipeLayout = new SwipeLayout(mContext);
+        final View startMenu = SwipeGestureReplay.createView(mContext, ItemType.START_MENU, 200, Gravity.START);
+        final View swipeView = SwipeGestureReplay.createView(mContext, ItemType.SWIPE_VIEW,
+                ViewGroup.LayoutParams.MATCH_PARENT, Gravity.START);
+        swipeLayout.addView(startMenu);
+        swipeLayout.addView(swipeView);
+
+        ((SwipeLayout.LayoutParams) startMenu.getLayoutParams()).setItemType(ItemType.END_MENU);
+        assertNull(swipeLayout.getStartMenu());
+        assertSame(startMenu, swipeLayout.getEndMenu());
+
+        swipeLayout.removeView(swipeView);
+        assertNull(swipeLayout.getSwipeView());
+    }
+
+    @Test
+    public void testOpenAndCloseStartMenuHorizontal() {
+        final SwipeLayout swipeLayout = SwipeGestureReplay.createSwipeLayout(mContext, 200, 150);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+
+        swipeLayout.openStartMenu(false);
+        assertEquals(swipeLayout.getStartMenu().getRight(), swipeLayout.getSwipeView().getLeft());
+        swipeLayout.closeStartView(false);
+        assertEquals(0, swipeLayout.getSwipeView().getLeft());
+
+        swipeLayout.openEndMenu(false);
+        assertEquals(swipeLayout.getEndMenu().getLeft(), swipeLayout.getSwipeView().getRight());
+        swipeLayout.closeEndView(false);
+        assertEquals(0, swipeLayout.getSwipeView().getLeft());
+    }
+
+    @Test
+    public void testKeepOffsetAcrossLayout() {
+        final SwipeLayout swipeLayout = SwipeGestureReplay.createSwipeLayout(mContext, 200, 150);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+
+        swipeLayout.openStartMenu(false);
+        swipeLayout.getSwipeView().requestLayout();
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+
+        assertEquals(swipeLayout.getStartMenu().getRight(), swipeLayout.getSwipeView().getLeft());
+        assertTrue(swipeLayout.isStartMenuOpen());
+    }
+
+    @Test
+    public void testDragRowBuiltInCode() {
+        final SwipeLayout swipeLayout = SwipeGestureReplay.createSwipeLayout(mContext, 200, 150);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        assertTrue(((SwipeLayout.LayoutParams) swipeLayout.getStartMenu().getLayoutParams()).isMenuEnable());
+
+        final SwipeGestureReplay replay = new SwipeGestureReplay(swipeLayout,
+                new VirtualFrameSource(SwipeAnimationScheduler.getInstance()));
+        replay.down(100, HEIGHT / 2);
+        replay.move(200, HEIGHT / 2);
+        replay.move(400, HEIGHT / 2);
+        // Dragged past the menu, the swipe view stops where the start menu is fully revealed.
+        assertEquals(200, swipeLayout.getSwipeView().getLeft());
+        assertEquals(SwipeState.DRAGGING, swipeLayout.getSwipeState());
+    }
+
+    @Test
+    public void testTouchAfterDetachMidDrag() {
+        final SwipeLayout swipeLayout = SwipeGestureReplay.createSwipeLayout(mContext, 200, 150);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        final SwipeGestureReplay replay = new SwipeGestureReplay(swipeLayout,
+                new VirtualFrameSource(SwipeAnimationScheduler.getInstance()));
+        replay.down(100, HEIGHT / 2);
+        replay.move(150, HEIGHT / 2);
+
+        // The velocity tracker is recycled, the rest of the gesture must not need it.
+        swipeLayout.onDetachedFromWindow();
+        replay.move(170, HEIGHT / 2);
+        assertTrue(swipeLayout.getSwipeView().getLeft() > 0);
+        swipeLayout.closeStartView(false);
+    }
+
+    @Test
+    public void testCopyLayoutParams() {
+        final SwipeLayout.LayoutParams source = new SwipeLayout.LayoutParams(200, HEIGHT);
+        source.setItemType(ItemType.END_MENU);
+        source.setMenuEnable(false);
+        final SwipeLayout.LayoutParams copy = new SwipeLayout.LayoutParams(source);
+        assertEquals(ItemType.END_MENU, copy.getItemType());
+        assertFalse(copy.isMenuEnable());
+        assertTrue(new SwipeLayout.LayoutParams(200, HEIGHT).isMenuEnable());
+    }
+
+    @Test
+    public void testMenusClippedToExposedStrip() {
+        final SwipeLayout swipeLayout = SwipeGestureReplay.createSwipeLayout(mContext, 200, 150);
+        swipeLayout.getSwipeView().setBackgroundColor(Color.WHITE);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        final View startMenu = swipeLayout.getStartMenu();
+        final View endMenu = swipeLayout.getEndMenu();
+        assertTrue(startMenu.getClipBounds().isEmpty());
+        assertTrue(endMenu.getClipBounds().isEmpty());
+
+        swipeLayout.openStartMenu(false);
+        assertEquals(new Rect(0, 0, 200, HEIGHT), startMenu.getClipBounds());
+        assertTrue(endMenu.getClipBounds().isEmpty());
+
+        // A swipe view that shows through does not clip the menus.
+        swipeLayout.getSwipeView().setBackgroundColor(Color.TRANSPARENT);
+        swipeLayout.requestLayout();
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        assertNull(startMenu.getClipBounds());
+        assertNull(endMenu.getClipBounds());
+    }
+
+    @Test
+    public void testOnlyExactHandlerClassesAreShared() {
+        assertTrue(new SwipeSnapHandler(mContext, null).isShareable());
+        assertTrue(new SwipeSpringHandler(mContext, null).isShareable());
+        assertFalse(new ReleaseCountingHandler(mContext, false).isShareable());
+    }
+
+    @Test
+    public void testDetachReleasesOnlyOwnHandler() {
+        final SwipeLayout swipeLayout = SwipeGestureReplay.createSwipeLayout(mContext, 200, 150);
+        final ReleaseCountingHandler ownHandler = new ReleaseCountingHandler(mContext, false);
+        swipeLayout.setEndSwipeHandler(ownHandler);
+        swipeLayout.onDetachedFromWindow();
+        assertEquals(1, ownHandler.mReleaseCount);
+
+        final ReleaseCountingHandler sharedHandler = new ReleaseCountingHandler(mContext, true);
+        swipeLayout.setEndSwipeHandler(sharedHandler);
+        swipeLayout.onDetachedFromWindow();
+        assertEquals(0, sharedHandler.mReleaseCount);
+    }
+
+    /**
+     * A subclass of the snap handler, shared only if it says so.
+     */
+    private static class ReleaseCountingHandler extends SwipeSnapHandler {
+        private final boolean mShareable;
+        private int mReleaseCount;
+
+        ReleaseCountingHandler(Context context, boolean shareable) {
+            super(context, null);
+            mShareable = shareable;
+        }
+
+        @Override
+        public boolean isShareable() {
+            return mShareable;
+        }
+
+        @Override
+        public void release() {
+            mReleaseCount++;
+        }
+    }
+}
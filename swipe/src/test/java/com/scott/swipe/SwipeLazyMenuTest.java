@@ -0,0 +1,163 @@
+package com.scott.swipe;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local tests for the menus declared by {@code app:startMenuLayout}, inflated when they are first revealed
+ * and shared by a {@link SwipeMenuPool}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SwipeLazyMenuTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 100;
+    private static final String MENU_LAYOUT = "@android:layout/simple_list_item_1";
+    /**
+     * Shorter than the menu measures, which fills the row.
+     */
+    private static final String DECLARED_LENGTH = "40px";
+
+    private Context mContext;
+    private SwipeAnimationScheduler mScheduler;
+    private SwipeAnimationScheduler.FrameSource mDefaultFrameSource;
+    private VirtualFrameSource mFrameSource;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mScheduler = SwipeAnimationScheduler.getInstance();
+        mDefaultFrameSource = mScheduler.getFrameSource();
+        mFrameSource = new VirtualFrameSource(mScheduler);
+        mScheduler.setFrameSource(mFrameSource);
+    }
+
+    @After
+    public void tearDown() {
+        mScheduler.reset();
+        mScheduler.setFrameSource(mDefaultFrameSource);
+    }
+
+    @Test
+    public void testMenuInflatedOnDrag() {
+        final SwipeLayout swipeLayout = createLazyRow();
+        assertNull(swipeLayout.getStartMenu());
+
+        final SwipeGestureReplay replay = new SwipeGestureReplay(swipeLayout, mFrameSource);
+        replay.down(100, HEIGHT / 2);
+        replay.move(160, HEIGHT / 2);
+        assertNotNull(swipeLayout.getStartMenu());
+    }
+
+    @Test
+    public void testOpenWaitsForMeasuredMenu() {
+        final SwipeLayout swipeLayout = createLazyRow();
+
+        swipeLayout.openStartMenu(false);
+        assertNotNull(swipeLayout.getStartMenu());
+        // The menu has no size yet, it does not open by the declared length.
+        assertEquals(0, swipeLayout.getSwipeView().getLeft());
+
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        assertEquals(swipeLayout.getStartMenu().getWidth(), swipeLayout.getSwipeView().getLeft());
+        assertEquals(WIDTH, swipeLayout.getStartMenuLength());
+        assertTrue(swipeLayout.isStartMenuOpen());
+    }
+
+    @Test
+    public void testAnimatedOpenWaitsForMeasuredMenu() {
+        final SwipeLayout swipeLayout = createLazyRow();
+
+        swipeLayout.openStartMenu(true);
+        assertFalse(mFrameSource.isFramePosted());
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        new SwipeGestureReplay(swipeLayout, mFrameSource).settle();
+        assertEquals(swipeLayout.getStartMenu().getWidth(), swipeLayout.getSwipeView().getLeft());
+        assertTrue(swipeLayout.isStartMenuOpen());
+    }
+
+    @Test
+    public void testCloseDropsWaitingOpen() {
+        final SwipeLayout swipeLayout = createLazyRow();
+
+        swipeLayout.openStartMenu(false);
+        swipeLayout.closeStartView(false);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        assertEquals(0, swipeLayout.getSwipeView().getLeft());
+        assertFalse(swipeLayout.isStartMenuOpen());
+    }
+
+    @Test
+    public void testPoolReusesReleasedMenu() {
+        final SwipeMenuPool pool = new SwipeMenuPool();
+        final List<SwipeLayout> boundRows = new ArrayList<>();
+        pool.setOnBindMenuListener(new SwipeMenuPool.OnBindMenuListener() {
+            @Override
+            public void onBindMenu(SwipeLayout swipeLayout, View menu, @ItemType int itemType) {
+                assertEquals(ItemType.START_MENU, itemType);
+                boundRows.add(swipeLayout);
+            }
+        });
+        final SwipeLayout first = createLazyRow();
+        final SwipeLayout second = createLazyRow();
+        first.setMenuPool(pool);
+        second.setMenuPool(pool);
+
+        first.openStartMenu(false);
+        SwipeGestureReplay.layout(first, WIDTH, HEIGHT);
+        final View menu = first.getStartMenu();
+        assertEquals(0, pool.getRecycledViewCount(android.R.layout.simple_list_item_1));
+
+        // Closed, the row gives the menu back to the pool.
+        first.closeStartView(false);
+        assertNull(first.getStartMenu());
+        assertNull(menu.getParent());
+        assertEquals(1, pool.getRecycledViewCount(android.R.layout.simple_list_item_1));
+
+        second.openStartMenu(false);
+        assertSame(menu, second.getStartMenu());
+        assertSame(second, menu.getParent());
+        assertEquals(0, pool.getRecycledViewCount(android.R.layout.simple_list_item_1));
+        assertEquals(2, boundRows.size());
+        assertSame(first, boundRows.get(0));
+        assertSame(second, boundRows.get(1));
+    }
+
+    /**
+     * @return A horizontal row laid out with a swipe view and only a lazy start menu.
+     */
+    private SwipeLayout createLazyRow() {
+        final AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.startMenuLayout, MENU_LAYOUT)
+                .addAttribute(R.attr.startMenuLength, DECLARED_LENGTH)
+                .build();
+        final SwipeLayout swipeLayout = new SwipeLayout(mContext, attrs);
+        swipeLayout.addView(SwipeGestureReplay.createView(mContext, ItemType.SWIPE_VIEW,
+                ViewGroup.LayoutParams.MATCH_PARENT, Gravity.START));
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        return swipeLayout;
+    }
+}
@@ -0,0 +1,85 @@
+package com.scott.swipe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests for {@link SwipeScroller}.
+ */
+public class SwipeScrollerTest {
+
+    private static final long FRAME_NANOS = 16000000L;
+
+    private SwipeScroller mScroller;
+
+    @Before
+    public void setUp() {
+        mScroller = new SwipeScroller();
+    }
+
+    @Test
+    public void testScrollReachesFinalPosition() {
+        mScroller.startScroll(0, 0, 200, -100, 250, 0);
+        long frameTime = 0;
+        int lastX = 0;
+        while (mScroller.computeScrollOffset(frameTime)) {
+            assertTrue(mScroller.getCurrX() >= lastX);
+            lastX = mScroller.getCurrX();
+            frameTime += FRAME_NANOS;
+        }
+        assertEquals(200, mScroller.getCurrX());
+        assertEquals(-100, mScroller.getCurrY());
+        assertTrue(mScroller.isFinished());
+        // 250ms runs 16 frames, the 17th frame lands on the final position.
+        assertEquals(17 * FRAME_NANOS, frameTime);
+    }
+
+    @Test
+    public void testFrameBeforeStartKeepsStartPosition() {
+        mScroller.startScroll(10, 0, 100, 0, 250, 5 * FRAME_NANOS);
+        assertTrue(mScroller.computeScrollOffset(FRAME_NANOS));
+        assertEquals(10, mScroller.getCurrX());
+    }
+
+    @Test
+    public void testDecelerateScrollStartsAtFlingVelocity() {
+        // 200px in 250ms starts at 5 * 0.8px/ms = 4px/ms, the first 16ms travel about 56px.
+        mScroller.startScroll(0, 0, 200, 0, 250, 0, true);
+        mScroller.computeScrollOffset(FRAME_NANOS);
+        final int decelerateX = mScroller.getCurrX();
+        assertTrue(decelerateX > 50 && decelerateX < 64);
+
+        mScroller.startScroll(0, 0, 200, 0, 250, 0);
+        mScroller.computeScrollOffset(FRAME_NANOS);
+        assertTrue(mScroller.getCurrX() < decelerateX);
+    }
+
+    @Test
+    public void testCurrVelocity() {
+        // 200px in 250ms decelerating starts at 5 * 800px/s.
+        mScroller.startScroll(0, 0, 200, 0, 250, 0, true);
+        mScroller.computeScrollOffset(0);
+        assertEquals(4000f, mScroller.getCurrVelocityX(), 40f);
+        assertEquals(0f, mScroller.getCurrVelocityY(), 0f);
+
+        mScroller.computeScrollOffset(125000000L);
+        assertTrue(mScroller.getCurrVelocityX() < 4000f / 8);
+
+        mScroller.computeScrollOffset(250000000L);
+        assertEquals(0f, mScroller.getCurrVelocityX(), 0f);
+    }
+
+    @Test
+    public void testForceFinished() {
+        mScroller.startScroll(0, 0, 100, 0, 250, 0);
+        mScroller.computeScrollOffset(4 * FRAME_NANOS);
+        final int currX = mScroller.getCurrX();
+        mScroller.forceFinished(true);
+        assertFalse(mScroller.computeScrollOffset(5 * FRAME_NANOS));
+        assertEquals(currX, mScroller.getCurrX());
+    }
+}
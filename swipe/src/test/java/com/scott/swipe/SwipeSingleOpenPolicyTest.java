@@ -0,0 +1,90 @@
+package com.scott.swipe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Local tests for {@link SwipeSingleOpenPolicy} keeping one of two rows open.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SwipeSingleOpenPolicyTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 100;
+    private static final int START_LENGTH = 200;
+    private static final int END_LENGTH = 150;
+
+    private SwipeAnimationScheduler mScheduler;
+    private SwipeAnimationScheduler.FrameSource mDefaultFrameSource;
+    private VirtualFrameSource mFrameSource;
+    private SwipeSingleOpenPolicy mPolicy;
+    private SwipeLayout mFirst;
+    private SwipeLayout mSecond;
+
+    @Before
+    public void setUp() {
+        mScheduler = SwipeAnimationScheduler.getInstance();
+        mDefaultFrameSource = mScheduler.getFrameSource();
+        mFrameSource = new VirtualFrameSource(mScheduler);
+        mScheduler.setFrameSource(mFrameSource);
+
+        mPolicy = new SwipeSingleOpenPolicy();
+        mFirst = createRow();
+        mSecond = createRow();
+        mPolicy.attach(mFirst);
+        mPolicy.attach(mSecond);
+    }
+
+    @After
+    public void tearDown() {
+        mScheduler.reset();
+        mScheduler.setFrameSource(mDefaultFrameSource);
+    }
+
+    @Test
+    public void testOpenByCodeClosesOpenRow() {
+        mFirst.openStartMenu(false);
+        assertSame(mFirst, mPolicy.getOpenLayout());
+
+        mSecond.openEndMenu(false);
+        settle();
+        assertSame(mSecond, mPolicy.getOpenLayout());
+        assertEquals(0, mFirst.getSwipeView().getLeft());
+        assertEquals(SwipeState.IDLE_CLOSED, mFirst.getSwipeState());
+    }
+
+    @Test
+    public void testRestoredOpenClosesOpenRow() {
+        mFirst.openStartMenu(false);
+
+        // Restored by the coordinator, the row opens without passing the slop.
+        mSecond.restoreOpenMenu(ItemType.END_MENU);
+        settle();
+        assertSame(mSecond, mPolicy.getOpenLayout());
+        assertEquals(-END_LENGTH, mSecond.getSwipeView().getLeft());
+        assertEquals(0, mFirst.getSwipeView().getLeft());
+        assertEquals(SwipeState.IDLE_CLOSED, mFirst.getSwipeState());
+    }
+
+    private void settle() {
+        for (int i = 0; i < 300 && mFrameSource.isFramePosted(); i++) {
+            mFrameSource.advanceFrame();
+        }
+    }
+
+    private static SwipeLayout createRow() {
+        final SwipeLayout swipeLayout =
+                SwipeGestureReplay.createSwipeLayout(RuntimeEnvironment.application, START_LENGTH, END_LENGTH);
+        SwipeGestureReplay.layout(swipeLayout, WIDTH, HEIGHT);
+        return swipeLayout;
+    }
+}
@@ -0,0 +1,42 @@
+package com.scott.swipe;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local unit tests for {@link SwipeSnap}.
+ */
+public class SwipeSnapTest {
+
+    @Test
+    public void testStatusChangeLength() {
+        assertEquals(100, SwipeSnap.getStatusChangeLength(SwipeSnap.STATUS_DEFAULT, 0, 200));
+        assertEquals(60, SwipeSnap.getStatusChangeLength(SwipeSnap.STATUS_FRACTION, 0.3f, 200));
+        assertEquals(48, SwipeSnap.getStatusChangeLength(SwipeSnap.STATUS_DIMENSION, 48, 200));
+    }
+
+    @Test
+    public void testScrollDistance() {
+        // past the middle the menu opens, otherwise it closes.
+        assertEquals(80, SwipeSnap.getScrollDistance(120, 200, SwipeSnap.STATUS_DEFAULT, 0));
+        assertEquals(-80, SwipeSnap.getScrollDistance(80, 200, SwipeSnap.STATUS_DEFAULT, 0));
+        assertEquals(-30, SwipeSnap.getScrollDistance(-120, 150, SwipeSnap.STATUS_DEFAULT, 0));
+        assertEquals(50, SwipeSnap.getScrollDistance(-50, 150, SwipeSnap.STATUS_DIMENSION, 60));
+    }
+
+    @Test
+    public void testFlingDistance() {
+        assertEquals(190, SwipeSnap.getFlingDistance(10, 200, 1000));
+        assertEquals(-190, SwipeSnap.getFlingDistance(190, 200, -1000));
+        assertEquals(-140, SwipeSnap.getFlingDistance(-10, 150, -1000));
+        assertEquals(0, SwipeSnap.getFlingDistance(0, 150, -1000));
+    }
+
+    @Test
+    public void testComputeRange() {
+        assertEquals(0.5f, SwipeSnap.computeRange(100, 200, 150), 0);
+        assertEquals(-1f, SwipeSnap.computeRange(-150, 200, 150), 0);
+        assertEquals(0f, SwipeSnap.computeRange(-20, 200, 0), 0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.scott.swipe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests for {@link SwipeSpring}.
+ */
+public class SwipeSpringTest {
+
+    private static final long FRAME_NANOS = 16000000L;
+    private static final int MAX_FRAMES = 600;
+
+    private SwipeSpring mSpring;
+
+    @Before
+    public void setUp() {
+        mSpring = new SwipeSpring();
+    }
+
+    @Test
+    public void testCriticallyDampedSettlesWithoutOvershoot() {
+        mSpring.start(0, 0, 200, 0);
+        long frameTime = 0;
+        while (mSpring.isRunning()) {
+            frameTime += FRAME_NANOS;
+            mSpring.update(frameTime);
+            assertTrue(mSpring.getValue() <= 200);
+        }
+        assertEquals(200f, mSpring.getValue(), 0f);
+        assertTrue(frameTime < MAX_FRAMES * FRAME_NANOS);
+    }
+
+    @Test
+    public void testUnderDampedBouncesAndSettles() {
+        mSpring.setSpring(SwipeSpring.DEFAULT_STIFFNESS, 0.3f);
+        mSpring.start(0, 0, 200, 0);
+        long frameTime = 0;
+        float max = 0;
+        while (mSpring.isRunning()) {
+            frameTime += FRAME_NANOS;
+            mSpring.update(frameTime);
+            max = Math.max(max, mSpring.getValue());
+        }
+        assertTrue(max > 200);
+        assertEquals(200f, mSpring.getValue(), 0f);
+    }
+
+    @Test
+    public void testOverDampedSettles() {
+        mSpring.setSpring(SwipeSpring.DEFAULT_STIFFNESS, 2f);
+        mSpring.start(0, 3000, -150, 0);
+        long frameTime = 0;
+        while (mSpring.isRunning() && frameTime < MAX_FRAMES * FRAME_NANOS) {
+            frameTime += FRAME_NANOS;
+            mSpring.update(frameTime);
+        }
+        assertFalse(mSpring.isRunning());
+        assertEquals(-150f, mSpring.getValue(), 0f);
+    }
+
+    @Test
+    public void testRetargetKeepsVelocity() {
+        mSpring.start(0, 0, 200, 0);
+        mSpring.update(5 * FRAME_NANOS);
+        final float value = mSpring.getValue();
+        final float velocity = mSpring.getVelocity();
+        assertTrue(velocity > 0);
+
+        mSpring.retarget(0, 5 * FRAME_NANOS);
+        assertEquals(value, mSpring.getValue(), 0.001f);
+        assertEquals(velocity, mSpring.getVelocity(), 0.001f);
+        // it keeps moving toward the old target for a moment before turning back.
+        mSpring.update(5 * FRAME_NANOS + 1000000L);
+        assertTrue(mSpring.getValue() > value);
+    }
+
+    @Test
+    public void testUpdateIsAllocationFree() {
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        // warm up
+        runSpring();
+        threadMXBean.getThreadAllocatedBytes(threadId);
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        runSpring();
+        final long after = threadMXBean.getThreadAllocatedBytes(threadId);
+        assertEquals(0, after - before);
+    }
+
+    private void runSpring() {
+        mSpring.start(0, 1000, 200, 0);
+        long frameTime = 0;
+        while (mSpring.update(frameTime)) {
+            frameTime += FRAME_NANOS;
+            if (frameTime == 4 * FRAME_NANOS) {
+                mSpring.retarget(-100, frameTime);
+            }
+        }
+    }
+}
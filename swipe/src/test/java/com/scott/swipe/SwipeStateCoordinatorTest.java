@@ -0,0 +1,77 @@
+package com.scott.swipe;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local tests for {@link SwipeStateCoordinator} recycling one row across items.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SwipeStateCoordinatorTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 100;
+    private static final int START_LENGTH = 200;
+    private static final int END_LENGTH = 150;
+
+    private static final long OPEN_ID = 1;
+    private static final long CLOSED_ID = 2;
+
+    private SwipeStateCoordinator mCoordinator;
+    private SwipeLayout mSwipeLayout;
+
+    @Before
+    public void setUp() {
+        mCoordinator = new SwipeStateCoordinator();
+        mSwipeLayout = SwipeGestureReplay.createSwipeLayout(RuntimeEnvironment.application, START_LENGTH, END_LENGTH);
+        SwipeGestureReplay.layout(mSwipeLayout, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void testRecycleOpenRowIntoClosedRow() {
+        mCoordinator.bind(mSwipeLayout, OPEN_ID);
+        mSwipeLayout.openStartMenu(false);
+        assertEquals(ItemType.START_MENU, mCoordinator.getOpenMenu(OPEN_ID));
+
+        // The row is recycled for a closed item, it shows closed at once.
+        mCoordinator.bind(mSwipeLayout, CLOSED_ID);
+        assertEquals(0, getSwipeView().getLeft());
+        assertEquals(SwipeState.IDLE_CLOSED, mSwipeLayout.getSwipeState());
+        assertEquals(ItemType.START_MENU, mCoordinator.getOpenMenu(OPEN_ID));
+        assertEquals(ItemType.NONE_ITEM, mCoordinator.getOpenMenu(CLOSED_ID));
+        assertEquals(1, mCoordinator.getOpenCount());
+
+        // Back to the open item, the offset is the menu length and not added to where the row was.
+        mCoordinator.bind(mSwipeLayout, OPEN_ID);
+        assertEquals(START_LENGTH, getSwipeView().getLeft());
+        assertEquals(SwipeState.OPEN_START, mSwipeLayout.getSwipeState());
+        mCoordinator.bind(mSwipeLayout, OPEN_ID);
+        assertEquals(START_LENGTH, getSwipeView().getLeft());
+    }
+
+    @Test
+    public void testRecycleRowAcrossOpenSides() {
+        mCoordinator.bind(mSwipeLayout, OPEN_ID);
+        mSwipeLayout.openEndMenu(false);
+        mCoordinator.bind(mSwipeLayout, CLOSED_ID);
+        mSwipeLayout.openStartMenu(false);
+
+        mCoordinator.bind(mSwipeLayout, OPEN_ID);
+        assertEquals(-END_LENGTH, getSwipeView().getLeft());
+        assertEquals(SwipeState.OPEN_END, mSwipeLayout.getSwipeState());
+        assertEquals(ItemType.START_MENU, mCoordinator.getOpenMenu(CLOSED_ID));
+    }
+
+    private View getSwipeView() {
+        return mSwipeLayout.getSwipeView();
+    }
+}
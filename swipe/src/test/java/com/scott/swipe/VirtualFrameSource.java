@@ -0,0 +1,58 @@
+package com.scott.swipe;
+
+import org.robolectric.Robolectric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame source with a virtual clock, so that a settle runs the same frames on every machine.
+ * <p>The clock only moves in {@link #advanceFrame()}, which also runs the main looper tasks of the frame,
+ * such as the drag offsets posted on animation.
+ */
+class VirtualFrameSource extends SwipeAnimationScheduler.FrameSource {
+
+    static final long FRAME_INTERVAL_NANOS = 16666667;
+
+    private final SwipeAnimationScheduler mScheduler;
+    private long mTimeNanos;
+    private boolean mFramePosted;
+
+    VirtualFrameSource(SwipeAnimationScheduler scheduler) {
+        mScheduler = scheduler;
+    }
+
+    @Override
+    void postFrame() {
+        mFramePosted = true;
+    }
+
+    @Override
+    void cancelFrame() {
+        mFramePosted = false;
+    }
+
+    @Override
+    long nanoTime() {
+        return mTimeNanos;
+    }
+
+    long uptimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mTimeNanos);
+    }
+
+    boolean isFramePosted() {
+        return mFramePosted;
+    }
+
+    /**
+     * Move the clock one frame on and run the frame if it is posted.
+     */
+    void advanceFrame() {
+        mTimeNanos += FRAME_INTERVAL_NANOS;
+        Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+        if (mFramePosted) {
+            mFramePosted = false;
+            mScheduler.doFrame(mTimeNanos);
+        }
+    }
+}